@@ -0,0 +1,87 @@
+package me.kirok.restapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import java.time.LocalDateTime;
+import me.kirok.restapi.commons.ErrorsSerializer;
+import me.kirok.restapi.events.Event;
+import me.kirok.restapi.events.EventDto;
+import me.kirok.restapi.events.EventStatus;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.Errors;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * 벤치마크에서 공통으로 사용하는 픽스처.
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 애플리케이션과 같은 방식으로 HAL, java.time, ErrorsSerializer 를 등록한 ObjectMapper.
+     * Event 전용 serializer 는 등록하지 않으므로 리플렉션 직렬화의 기준이 된다.
+     */
+    public static ObjectMapper halObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.registerModule(new Jackson2HalModule());
+        objectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+            new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        objectMapper.registerModule(
+            new SimpleModule().addSerializer(Errors.class, new ErrorsSerializer()));
+        return objectMapper;
+    }
+
+    /**
+     * linkTo() 가 요청 기반 URI 를 만들 수 있도록 현재 스레드에 요청을 바인딩한다.
+     */
+    public static void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    public static EventDto eventDto() {
+        return EventDto.builder()
+            .name("spring")
+            .description("rest api")
+            .beginEnrollmentDateTime(LocalDateTime.of(2021, 7, 30, 21, 21))
+            .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 30, 21, 21))
+            .beginEventDateTime(LocalDateTime.of(2021, 9, 1, 21, 21))
+            .endEventDateTime(LocalDateTime.of(2021, 9, 2, 21, 21))
+            .basePrice(100)
+            .maxPrice(200)
+            .limitOfEnrollment(100)
+            .location("강남")
+            .build();
+    }
+
+    public static Event event(int id) {
+        return Event.builder()
+            .id(id)
+            .name("event " + id)
+            .description("rest api")
+            .beginEnrollmentDateTime(LocalDateTime.of(2021, 7, 30, 21, 21))
+            .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 30, 21, 21))
+            .beginEventDateTime(LocalDateTime.of(2021, 9, 1, 21, 21))
+            .endEventDateTime(LocalDateTime.of(2021, 9, 2, 21, 21))
+            .basePrice(100)
+            .maxPrice(200)
+            .limitOfEnrollment(100)
+            .location("강남")
+            .free(false)
+            .offline(true)
+            .eventStatus(EventStatus.DRAFT)
+            .build();
+    }
+}
@@ -0,0 +1,180 @@
+package me.kirok.restapi.commons;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import me.kirok.restapi.BenchmarkSupport;
+import me.kirok.restapi.events.Event;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.NoopOptimizer;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 동시에 createEvent 가 들어올 때 ID 할당 + INSERT 처리량 비교.
+ * 시퀀스 조회와 INSERT 는 H2 인메모리 데이터베이스에 JDBC 로 실제로 실행한다.
+ * 같은 프로세스 안의 데이터베이스라 네트워크 왕복이 없으므로, MySQL 에서의 차이는 이보다 크다.
+ * Hibernate 세션(flush, 배치)은 거치지 않으므로 ID 할당 방식에 따른 차이만 본다.
+ *
+ * <ul>
+ *     <li>noop: 기존 {@code @GeneratedValue} 처럼 INSERT 마다 시퀀스를 조회한다.</li>
+ *     <li>hibernatePooledLo: Hibernate 기본 pooled-lo. 블록 단위로 예약하지만 ID 마다 synchronized 이다.</li>
+ *     <li>lockFreePooledLo: {@link LockFreePooledLoOptimizer}.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark {
+
+    private static final int INCREMENT_SIZE = 50;
+
+    private static final int MAX_CONNECTIONS = 32;
+
+    private JdbcConnectionPool dataSource;
+
+    private Optimizer noop;
+    private Optimizer hibernatePooledLo;
+    private Optimizer lockFreePooledLo;
+
+    private SequenceCallback noopSequence;
+    private SequenceCallback hibernatePooledLoSequence;
+    private SequenceCallback lockFreePooledLoSequence;
+
+    @Setup
+    public void setup() throws SQLException {
+        this.dataSource = JdbcConnectionPool.create(
+            "jdbc:h2:mem:id-generation;DB_CLOSE_DELAY=-1", "sa", "");
+        this.dataSource.setMaxConnections(MAX_CONNECTIONS);
+        try (Connection connection = this.dataSource.getConnection();
+            Statement statement = connection.createStatement()) {
+            statement.execute("create sequence noop_seq start with 1 increment by 1");
+            statement.execute("create sequence hibernate_seq start with 1 increment by "
+                + INCREMENT_SIZE);
+            statement.execute("create sequence lock_free_seq start with 1 increment by "
+                + INCREMENT_SIZE);
+            statement.execute("create table event (id bigint primary key, "
+                + "name varchar(255), description varchar(255))");
+        }
+
+        this.noop = new NoopOptimizer(Long.class, 1);
+        this.hibernatePooledLo = new PooledLoOptimizer(Long.class, INCREMENT_SIZE);
+        this.lockFreePooledLo = new LockFreePooledLoOptimizer(Long.class, INCREMENT_SIZE);
+
+        this.noopSequence = new SequenceCallback(this.dataSource, "noop_seq");
+        this.hibernatePooledLoSequence = new SequenceCallback(this.dataSource, "hibernate_seq");
+        this.lockFreePooledLoSequence = new SequenceCallback(this.dataSource, "lock_free_seq");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Connection connection = this.dataSource.getConnection();
+            Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+        }
+        this.dataSource.dispose();
+    }
+
+    @Benchmark
+    public Serializable noop(Session session) throws SQLException {
+        return session.insert(this.noop.generate(this.noopSequence));
+    }
+
+    @Benchmark
+    public Serializable hibernatePooledLo(Session session) throws SQLException {
+        return session.insert(this.hibernatePooledLo.generate(this.hibernatePooledLoSequence));
+    }
+
+    @Benchmark
+    public Serializable lockFreePooledLo(Session session) throws SQLException {
+        return session.insert(this.lockFreePooledLo.generate(this.lockFreePooledLoSequence));
+    }
+
+    /**
+     * 스레드마다 연결 하나로 INSERT 한다. (요청 하나 = 트랜잭션 하나, autocommit)
+     */
+    @State(Scope.Thread)
+    public static class Session {
+
+        private final Event event = BenchmarkSupport.event(0);
+
+        private Connection connection;
+        private PreparedStatement insert;
+
+        @Setup
+        public void setup(IdGenerationBenchmark benchmark) throws SQLException {
+            this.connection = benchmark.dataSource.getConnection();
+            this.insert = this.connection.prepareStatement(
+                "insert into event (id, name, description) values (?, ?, ?)");
+        }
+
+        @TearDown
+        public void tearDown() throws SQLException {
+            this.insert.close();
+            this.connection.close();
+        }
+
+        private Serializable insert(Serializable id) throws SQLException {
+            this.insert.setLong(1, ((Number) id).longValue());
+            this.insert.setString(2, this.event.getName());
+            this.insert.setString(3, this.event.getDescription());
+            this.insert.executeUpdate();
+            return id;
+        }
+    }
+
+    /**
+     * Hibernate 의 SequenceStructure 처럼 시퀀스의 다음 값을 데이터베이스에서 읽는다.
+     */
+    private static final class SequenceCallback implements AccessCallback {
+
+        private final JdbcConnectionPool dataSource;
+        private final String sql;
+
+        private SequenceCallback(JdbcConnectionPool dataSource, String sequenceName) {
+            this.dataSource = dataSource;
+            this.sql = "select next value for " + sequenceName;
+        }
+
+        @Override
+        public IntegralDataTypeHolder getNextValue() {
+            try (Connection connection = this.dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(this.sql);
+                ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class)
+                    .initialize(resultSet.getLong(1));
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public String getTenantIdentifier() {
+            return null;
+        }
+    }
+}
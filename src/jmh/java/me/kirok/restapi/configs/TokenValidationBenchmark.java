@@ -0,0 +1,94 @@
+package me.kirok.restapi.configs;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.InMemoryTokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+/**
+ * 인증된 요청마다 일어나는 access token 검증(loadAuthentication) 처리량 비교.
+ * in-memory 는 공유 맵 조회, jwt 는 서명 검증과 디코딩만 한다.
+ * 저장소에는 다른 사용자의 토큰 10,000개가 미리 들어있다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class TokenValidationBenchmark {
+
+    private static final int ISSUED_TOKENS = 10_000;
+
+    private DefaultTokenServices inMemoryTokenServices;
+    private DefaultTokenServices jwtTokenServices;
+    private String inMemoryToken;
+    private String jwtToken;
+
+    @Setup
+    public void setup() throws Exception {
+        this.inMemoryTokenServices = tokenServices(new InMemoryTokenStore(), null);
+
+        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
+        converter.setSigningKey("benchmark-signing-key");
+        converter.afterPropertiesSet();
+        this.jwtTokenServices = tokenServices(new JwtTokenStore(converter), converter);
+
+        for (int i = 0; i < ISSUED_TOKENS; i++) {
+            this.inMemoryTokenServices.createAccessToken(authentication("user" + i));
+        }
+        this.inMemoryToken = this.inMemoryTokenServices
+            .createAccessToken(authentication("keesun@email.com")).getValue();
+        this.jwtToken = this.jwtTokenServices
+            .createAccessToken(authentication("keesun@email.com")).getValue();
+    }
+
+    @Benchmark
+    public OAuth2Authentication inMemory() {
+        return this.inMemoryTokenServices.loadAuthentication(this.inMemoryToken);
+    }
+
+    @Benchmark
+    public OAuth2Authentication jwt() {
+        return this.jwtTokenServices.loadAuthentication(this.jwtToken);
+    }
+
+    private static DefaultTokenServices tokenServices(TokenStore tokenStore,
+        JwtAccessTokenConverter converter) {
+        DefaultTokenServices tokenServices = new DefaultTokenServices();
+        tokenServices.setTokenStore(tokenStore);
+        tokenServices.setTokenEnhancer(converter);
+        tokenServices.setSupportRefreshToken(true);
+        tokenServices.setAccessTokenValiditySeconds(10 * 60);
+        return tokenServices;
+    }
+
+    private static OAuth2Authentication authentication(String username) {
+        OAuth2Request request = new OAuth2Request(Map.of(), "myApp",
+            AuthorityUtils.createAuthorityList("ROLE_ADMIN"), true, Set.of("all"), Set.of(), null,
+            Set.of(), Map.of());
+        UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken(
+            username, "N/A", AuthorityUtils.createAuthorityList("ROLE_USER"));
+        return new OAuth2Authentication(request, user);
+    }
+}
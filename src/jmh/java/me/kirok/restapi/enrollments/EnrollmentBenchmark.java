@@ -0,0 +1,176 @@
+package me.kirok.restapi.enrollments;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import me.kirok.restapi.events.Event;
+import me.kirok.restapi.events.EventStatus;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 한 이벤트에 참가 신청이 몰릴 때의 처리량 비교.
+ * rowLock 은 H2 인메모리 데이터베이스에 JDBC 로 실제 UPDATE 와 INSERT 를 실행한다.
+ * 같은 프로세스 안의 데이터베이스라 네트워크 왕복과 디스크 fsync 가 없으므로, MySQL 에서의 차이는 이보다 크다.
+ *
+ * <ul>
+ *     <li>rowLock: 신청마다 이벤트 행을 잠그고 신청 수를 갱신한 뒤 신청을 INSERT 하고 commit 한다.</li>
+ *     <li>slot: {@link EnrollmentSlot} 의 CAS 만 측정한다.</li>
+ *     <li>slotAndLog: slot 에 더해 {@link EnrollmentLog} 에 group commit 으로 fsync 될 때까지 기다린다.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class EnrollmentBenchmark {
+
+    private static final int EVENT_ID = 1;
+
+    private static final int MAX_CONNECTIONS = 32;
+
+    private JdbcConnectionPool dataSource;
+
+    private EnrollmentSlot slot;
+
+    private Path logPath;
+
+    private EnrollmentLog enrollmentLog;
+
+    @Setup(Level.Trial)
+    public void setupDatabase() throws SQLException {
+        this.dataSource = JdbcConnectionPool.create(
+            "jdbc:h2:mem:enrollment;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000", "sa", "");
+        this.dataSource.setMaxConnections(MAX_CONNECTIONS);
+        try (Connection connection = this.dataSource.getConnection();
+            Statement statement = connection.createStatement()) {
+            statement.execute("create table event (id int primary key, "
+                + "limit_of_enrollment int not null, taken int not null)");
+            statement.execute("create table enrollment (id bigint auto_increment primary key, "
+                + "reference varchar(36) not null, event_id int not null, "
+                + "username varchar(255), enrolled_at timestamp)");
+            statement.execute("insert into event values (" + EVENT_ID + ", "
+                + Integer.MAX_VALUE + ", 0)");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownDatabase() throws SQLException {
+        try (Connection connection = this.dataSource.getConnection();
+            Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+        }
+        this.dataSource.dispose();
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        this.slot = new EnrollmentSlot(Event.builder()
+            .limitOfEnrollment(Integer.MAX_VALUE)
+            .eventStatus(EventStatus.BEGAN_ENROLLMENT)
+            .build(), 0, List.of());
+        this.logPath = Files.createTempDirectory("enrollment-benchmark")
+            .resolve("enrollments.log");
+        this.enrollmentLog = new EnrollmentLog(this.logPath, entries -> {
+        });
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        this.enrollmentLog.close();
+        for (Path segment : EnrollmentLog.segments(this.logPath)) {
+            Files.deleteIfExists(segment);
+        }
+        Files.deleteIfExists(this.logPath.getParent());
+    }
+
+    @Benchmark
+    public boolean rowLock(Session session) throws SQLException {
+        return session.enroll();
+    }
+
+    @Benchmark
+    public boolean slot() {
+        return this.slot.tryAcquire();
+    }
+
+    @Benchmark
+    public void slotAndLog() throws Exception {
+        if (this.slot.tryAcquire()) {
+            this.enrollmentLog.append(new EnrollmentLog.Entry(UUID.randomUUID(), 1,
+                System.currentTimeMillis(), "user@email.com")).get();
+        }
+    }
+
+    /**
+     * 스레드마다 연결 하나로 신청 하나를 트랜잭션 하나로 처리한다.
+     */
+    @State(Scope.Thread)
+    public static class Session {
+
+        private Connection connection;
+        private PreparedStatement take;
+        private PreparedStatement insert;
+
+        @Setup(Level.Trial)
+        public void setup(EnrollmentBenchmark benchmark) throws SQLException {
+            this.connection = benchmark.dataSource.getConnection();
+            this.connection.setAutoCommit(false);
+            this.take = this.connection.prepareStatement("update event set taken = taken + 1 "
+                + "where id = ? and taken < limit_of_enrollment");
+            this.insert = this.connection.prepareStatement("insert into enrollment "
+                + "(reference, event_id, username, enrolled_at) values (?, ?, ?, ?)");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            this.take.close();
+            this.insert.close();
+            this.connection.close();
+        }
+
+        private boolean enroll() throws SQLException {
+            try {
+                this.take.setInt(1, EVENT_ID);
+                if (this.take.executeUpdate() == 0) {
+                    this.connection.rollback();
+                    return false;
+                }
+                this.insert.setString(1, UUID.randomUUID().toString());
+                this.insert.setInt(2, EVENT_ID);
+                this.insert.setString(3, "user@email.com");
+                this.insert.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                this.insert.executeUpdate();
+                this.connection.commit();
+                return true;
+            } catch (SQLException e) {
+                this.connection.rollback();
+                throw e;
+            }
+        }
+    }
+}
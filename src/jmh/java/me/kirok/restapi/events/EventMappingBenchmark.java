@@ -0,0 +1,75 @@
+package me.kirok.restapi.events;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * createEvent / updateEvent 의 EventDto -> Event 변환 비용 비교. (ModelMapper vs EventMapper)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventMappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private EventMapper eventMapper;
+    private EventDto eventDto;
+    private Event event;
+
+    @Setup
+    public void setup() {
+        this.modelMapper = new ModelMapper();
+        this.eventMapper = new EventMapper();
+        this.eventDto = EventDto.builder()
+            .name("spring")
+            .description("rest api")
+            .beginEnrollmentDateTime(LocalDateTime.of(2021, 7, 30, 21, 21))
+            .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 30, 21, 21))
+            .beginEventDateTime(LocalDateTime.of(2021, 9, 1, 21, 21))
+            .endEventDateTime(LocalDateTime.of(2021, 9, 2, 21, 21))
+            .basePrice(100)
+            .maxPrice(200)
+            .limitOfEnrollment(100)
+            .location("강남")
+            .build();
+        this.event = new Event();
+        // 첫 호출에서 만들어지는 타입 맵은 측정에서 제외한다.
+        this.modelMapper.map(this.eventDto, Event.class);
+    }
+
+    @Benchmark
+    public Event modelMapperCreate() {
+        return this.modelMapper.map(this.eventDto, Event.class);
+    }
+
+    @Benchmark
+    public Event eventMapperCreate() {
+        return this.eventMapper.toEvent(this.eventDto);
+    }
+
+    @Benchmark
+    public Event modelMapperUpdate() {
+        this.modelMapper.map(this.eventDto, this.event);
+        return this.event;
+    }
+
+    @Benchmark
+    public Event eventMapperUpdate() {
+        this.eventMapper.copy(this.eventDto, this.event);
+        return this.event;
+    }
+}
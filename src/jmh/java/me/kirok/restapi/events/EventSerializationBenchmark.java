@@ -0,0 +1,95 @@
+package me.kirok.restapi.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import me.kirok.restapi.BenchmarkSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+
+/**
+ * 이벤트 HAL 응답 직렬화 비용.
+ *
+ * <ul>
+ *     <li>reflective*: 빈 introspection 과 Jackson2HalModule 로 직렬화한다. (변경 전)</li>
+ *     <li>handWritten*: {@link EventSerializer}, {@link EventSliceModelSerializer} 를 등록한다.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private ObjectMapper reflective;
+
+    private ObjectMapper handWritten;
+
+    private EntityModel<Event> eventModel;
+
+    private EventSliceModel page;
+
+    @Setup
+    public void setup() {
+        this.reflective = BenchmarkSupport.halObjectMapper();
+        this.handWritten = BenchmarkSupport.halObjectMapper().registerModule(new SimpleModule()
+            .addSerializer(new EventSerializer())
+            .addSerializer(new EventSliceModelSerializer()));
+
+        this.eventModel = EntityModel.of(BenchmarkSupport.event(1),
+            Link.of("http://localhost:8080/api/events/1"),
+            Link.of("http://localhost:8080/docs/index.html#resources-events-get", "profile"));
+
+        List<EntityModel<Event>> content = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            content.add(EntityModel.of(BenchmarkSupport.event(i),
+                Link.of("http://localhost:8080/api/events/" + i)));
+        }
+        this.page = new EventSliceModel(content,
+            new EventSliceModel.SliceMetadata(PAGE_SIZE, 0, true, 1000, true));
+        this.page.add(Link.of("http://localhost:8080/api/events/slice?page=0&size=100",
+            IanaLinkRelations.SELF));
+        this.page.add(Link.of("http://localhost:8080/api/events/slice?page=1&size=100",
+            IanaLinkRelations.NEXT));
+        this.page.add(
+            Link.of("http://localhost:8080/docs/index.html#resources-events-slice", "profile"));
+    }
+
+    @Benchmark
+    public byte[] reflectiveEvent() throws JsonProcessingException {
+        return this.reflective.writeValueAsBytes(this.eventModel);
+    }
+
+    @Benchmark
+    public byte[] handWrittenEvent() throws JsonProcessingException {
+        return this.handWritten.writeValueAsBytes(this.eventModel);
+    }
+
+    @Benchmark
+    public byte[] reflectivePage() throws JsonProcessingException {
+        return this.reflective.writeValueAsBytes(this.page);
+    }
+
+    @Benchmark
+    public byte[] handWrittenPage() throws JsonProcessingException {
+        return this.handWritten.writeValueAsBytes(this.page);
+    }
+}
@@ -0,0 +1,105 @@
+package me.kirok.restapi.events;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import me.kirok.restapi.BenchmarkSupport;
+import me.kirok.restapi.commons.LinkFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 100 개짜리 이벤트 페이지에 링크를 붙이는 비용.
+ * 실제 요청처럼 매 호출마다 새 요청을 바인딩하므로 요청당 한 번 만드는 비용도 포함된다.
+ *
+ * <ul>
+ *     <li>perItemLinkTo: 항목마다 {@code linkTo(EventController.class).slash(id)} 를 호출한다. (변경 전)</li>
+ *     <li>linkFactoryPerRequest: {@link LinkFactory} 가 요청에서 기준 URI 를 한 번 만든다.</li>
+ *     <li>linkFactoryConfiguredHost: links.base-uri 를 설정해서 요청을 보지 않는다.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LinkAssemblyBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private List<Event> events;
+
+    private LinkFactory perRequest;
+
+    private LinkFactory configuredHost;
+
+    @Setup
+    public void setup() {
+        this.events = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            this.events.add(BenchmarkSupport.event(i));
+        }
+        this.perRequest = new LinkFactory("", "");
+        this.configuredHost = new LinkFactory("http://localhost:8080", "");
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public PagedModel<EntityModel<Event>> perItemLinkTo() {
+        BenchmarkSupport.bindRequest();
+        List<EntityModel<Event>> content = new ArrayList<>(PAGE_SIZE);
+        for (Event event : this.events) {
+            content.add(EntityModel.of(event,
+                linkTo(EventController.class).slash(event.getId()).withSelfRel()));
+        }
+        PagedModel<EntityModel<Event>> pagedModel = PagedModel.of(content,
+            new PagedModel.PageMetadata(PAGE_SIZE, 0, 1000));
+        pagedModel.add(
+            Link.of("http://localhost:8080/docs/index.html#resources-events-list", "profile"));
+        return pagedModel;
+    }
+
+    @Benchmark
+    public PagedModel<EntityModel<Event>> linkFactoryPerRequest() {
+        BenchmarkSupport.bindRequest();
+        return assemble(this.perRequest);
+    }
+
+    @Benchmark
+    public PagedModel<EntityModel<Event>> linkFactoryConfiguredHost() {
+        BenchmarkSupport.bindRequest();
+        return assemble(this.configuredHost);
+    }
+
+    private PagedModel<EntityModel<Event>> assemble(LinkFactory linkFactory) {
+        List<EntityModel<Event>> content = new ArrayList<>(PAGE_SIZE);
+        for (Event event : this.events) {
+            content.add(EntityModel.of(event,
+                linkFactory.self(EventController.class, event.getId())));
+        }
+        PagedModel<EntityModel<Event>> pagedModel = PagedModel.of(content,
+            new PagedModel.PageMetadata(PAGE_SIZE, 0, 1000));
+        pagedModel.add(linkFactory.profile("resources-events-list"));
+        return pagedModel;
+    }
+}
@@ -0,0 +1,121 @@
+package me.kirok.restapi.events;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import me.kirok.restapi.BenchmarkSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 모든 이벤트 요청이 거치는 구간의 기준 성능.
+ * EventDto 매핑은 {@link EventMappingBenchmark} 에서 측정한다.
+ * 결과는 build/results/jmh/results.json 에 남으므로 튜닝 전후를 비교할 때 사용한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestHotPathBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private EventValidator eventValidator;
+    private EventDto eventDto;
+    private EventDto wrongEventDto;
+    private Event event;
+    private ObjectMapper objectMapper;
+    private PagedModel<EntityModel<Event>> pagedModel;
+    private Errors errors;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.bindRequest();
+        this.eventValidator = new EventValidator();
+        this.eventDto = BenchmarkSupport.eventDto();
+        this.wrongEventDto = BenchmarkSupport.eventDto();
+        this.wrongEventDto.setBasePrice(10000);
+        this.wrongEventDto.setBeginEnrollmentDateTime(LocalDateTime.of(2021, 9, 30, 21, 21));
+        this.event = BenchmarkSupport.event(1);
+        this.objectMapper = BenchmarkSupport.halObjectMapper();
+
+        List<EntityModel<Event>> content = IntStream.range(0, PAGE_SIZE)
+            .mapToObj(BenchmarkSupport::event)
+            .map(e -> EntityModel.of(e,
+                linkTo(EventController.class).slash(e.getId()).withSelfRel()))
+            .collect(Collectors.toList());
+        this.pagedModel = PagedModel.of(content,
+            new PagedModel.PageMetadata(PAGE_SIZE, 0, 100));
+        this.pagedModel.add(linkTo(EventController.class).withSelfRel());
+
+        this.errors = new BeanPropertyBindingResult(this.wrongEventDto, "eventDto");
+        this.eventValidator.validate(this.wrongEventDto, this.errors);
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Errors validate() {
+        Errors errors = new BeanPropertyBindingResult(this.eventDto, "eventDto");
+        this.eventValidator.validate(this.eventDto, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Errors validateWrongInput() {
+        Errors errors = new BeanPropertyBindingResult(this.wrongEventDto, "eventDto");
+        this.eventValidator.validate(this.wrongEventDto, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Event update() {
+        this.event.update();
+        return this.event;
+    }
+
+    @Benchmark
+    public EntityModel<Event> entityModelWithLinks() {
+        return EntityModel.of(
+            this.event,
+            linkTo(EventController.class).slash(this.event.getId()).withSelfRel(),
+            Link.of("http://localhost:8080/docs/index.html#resources-events-get", "profile")
+        );
+    }
+
+    @Benchmark
+    public byte[] serializePagedModel() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.pagedModel);
+    }
+
+    @Benchmark
+    public byte[] serializeErrors() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.errors);
+    }
+}
@@ -2,6 +2,7 @@ package me.kirok.restapi.accounts;
 
 
 import java.util.Set;
+import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -9,14 +10,19 @@ import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 @Entity
+@Table(indexes = @Index(name = "ux_account_email", columnList = "email", unique = true))
 @Getter
 @Setter
 @EqualsAndHashCode(of = "id")
@@ -26,9 +32,19 @@ import lombok.Setter;
 public class Account {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "account_id_generator")
+    @GenericGenerator(
+        name = "account_id_generator",
+        strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+        parameters = {
+            @Parameter(name = "sequence_name", value = "account_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer",
+                value = "me.kirok.restapi.commons.LockFreePooledLoOptimizer")
+        })
     private Integer id;
 
+    @Column(nullable = false)
     private String email;
 
     private String password;
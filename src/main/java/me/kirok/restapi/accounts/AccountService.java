@@ -1,12 +1,12 @@
 package me.kirok.restapi.accounts;
 
-import java.util.Collection;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
+import me.kirok.restapi.accounts.UserDetailsCache.CachedUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -22,23 +22,47 @@ public class AccountService implements UserDetailsService {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    @Autowired
+    UserDetailsCache userDetailsCache;
+
     public Account saveAccount(Account account) {
+        boolean isNew = account.getId() == null;
+        account.setEmail(normalizeEmail(account.getEmail()));
         account.setPassword(this.passwordEncoder.encode(account.getPassword()));
-        return this.accountRepository.save(account);
+        Account saved = this.accountRepository.save(account);
+        // 기존 계정의 이메일이 바뀌었을 수 있으므로 수정이면 전부 비운다.
+        if (isNew) {
+            this.userDetailsCache.invalidate(saved.getEmail());
+        } else {
+            this.userDetailsCache.invalidateAll();
+        }
+        return saved;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        String email = normalizeEmail(username);
+        return this.userDetailsCache.get(email, this::loadUser);
+    }
 
-        Account account = accountRepository.findByEmail(username)
-            .orElseThrow(() -> new UsernameNotFoundException(username));
+    private CachedUser loadUser(String email) {
+        Account account = accountRepository.findByEmail(email)
+            .orElseThrow(() -> new UsernameNotFoundException(email));
 
-        return new User(account.getEmail(), account.getPassword(), authorities(account.getRoles()));
+        return new CachedUser(account.getEmail(), account.getPassword(),
+            authorities(account.getRoles()));
     }
 
-    private Collection<? extends GrantedAuthority> authorities(Set<AccountRole> roles) {
+    private Set<? extends GrantedAuthority> authorities(Set<AccountRole> roles) {
         return roles.stream()
             .map(r -> new SimpleGrantedAuthority("ROLE_" + r.name()))
             .collect(Collectors.toSet());
     }
+
+    /**
+     * 이메일은 앞뒤 공백을 제거하고 소문자로 저장/조회한다. (account.email 유니크 인덱스 기준)
+     */
+    static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,67 @@
+package me.kirok.restapi.accounts;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * 이메일(정규화된 값)로 UserDetails 를 캐싱한다. 개수와 TTL 로 제한된다.
+ * AuthenticationManager 가 인증 후 UserDetails 의 비밀번호를 지우기 때문에(eraseCredentials)
+ * 캐시에는 값만 보관하고 조회할 때마다 새 User 를 만들어서 돌려준다.
+ * 히트/미스/제거 횟수는 cache.* 메트릭(cache=accounts.user-details)으로 노출된다.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, CachedUser> cache;
+
+    public UserDetailsCache(MeterRegistry meterRegistry,
+        @Value("${accounts.user-cache.ttl-seconds:300}") long ttlSeconds,
+        @Value("${accounts.user-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .maximumSize(maxSize)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "accounts.user-details");
+    }
+
+    /**
+     * 캐시에 없으면 loader 로 읽어서 캐싱한다. loader 가 던진 예외는 그대로 전파되고 캐싱되지 않는다.
+     */
+    public UserDetails get(String email, Function<String, CachedUser> loader) {
+        CachedUser user = this.cache.get(email, loader);
+        return new User(user.username, user.password, user.authorities);
+    }
+
+    public void invalidate(String email) {
+        this.cache.invalidate(email);
+    }
+
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    public static final class CachedUser {
+
+        private final String username;
+        private final String password;
+        private final Set<GrantedAuthority> authorities;
+
+        public CachedUser(String username, String password,
+            Set<? extends GrantedAuthority> authorities) {
+            this.username = username;
+            this.password = password;
+            this.authorities = Set.copyOf(authorities);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package me.kirok.restapi.commons;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 비밀번호 encode/matches 를 전용 스레드 풀에서 실행하는 PasswordEncoder.
+ *
+ * <p>bcrypt 는 요청마다 수십 ms 의 CPU 를 쓰기 때문에 로그인이 몰리면 요청 스레드가 전부 해싱에 묶인다.
+ * 해싱은 고정된 개수의 스레드에서만 돌고, 대기 큐가 가득 차면 기다리지 않고
+ * {@link PasswordHashingRejectedException} 을 던진다. (503 으로 응답된다.)
+ *
+ * <p>큐 대기 시간과 해싱 시간은 security.password.hashing.* 메트릭으로 노출된다.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeQueueWait;
+    private final Timer matchesQueueWait;
+    private final Timer encodeTime;
+    private final Timer matchesTime;
+    private final Counter rejections;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+        MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "password-hashing-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.encodeQueueWait = timer(meterRegistry, "security.password.hashing.queue-wait", "encode");
+        this.matchesQueueWait = timer(meterRegistry, "security.password.hashing.queue-wait",
+            "matches");
+        this.encodeTime = timer(meterRegistry, "security.password.hashing.time", "encode");
+        this.matchesTime = timer(meterRegistry, "security.password.hashing.time", "matches");
+        this.rejections = Counter.builder("security.password.hashing.rejections")
+            .register(meterRegistry);
+        Gauge.builder("security.password.hashing.queue", this.executor,
+            e -> e.getQueue().size())
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(this.encodeQueueWait, this.encodeTime,
+            () -> this.delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(this.matchesQueueWait, this.matchesTime,
+            () -> this.delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    private <T> T execute(Timer queueWait, Timer hashTime, Supplier<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = this.executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return hashTime.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            this.rejections.increment();
+            throw new PasswordHashingRejectedException("password hashing queue is full", e);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("interrupted while waiting for hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String name, String operation) {
+        return Timer.builder(name)
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+}
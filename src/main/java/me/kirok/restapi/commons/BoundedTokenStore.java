@@ -0,0 +1,485 @@
+package me.kirok.restapi.commons;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.DefaultAuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+
+/**
+ * 저장 개수에 상한이 있고 만료된 토큰을 백그라운드에서 지우는 TokenStore.
+ *
+ * <p>토큰 값, 클라이언트, 클라이언트+사용자 인덱스는 모두 ConcurrentHashMap 이라 조회에 잠금이 없다.
+ * 만료는 timer wheel 로 관리한다. 토큰을 저장할 때 만료 시각에 해당하는 칸에 넣어두고,
+ * sweeper 스레드가 tick 마다 지난 칸만 확인하기 때문에 sweep 비용은 만료되는 토큰 수에 비례한다.
+ *
+ * <p>상한에 도달하면 먼저 sweep 하고, 그래도 가득 차 있으면 곧 만료될 토큰부터 상한의 1/10 만큼
+ * 한꺼번에 제거한다. wheel 을 훑는 비용이 제거한 토큰 수로 나뉘므로 가득 찬 상태에서도
+ * 저장할 때마다 wheel 전체를 훑지 않는다.
+ * 토큰 수, 메모리 추정치, sweep 시간, 제거 횟수는 security.token-store.* 메트릭으로 노출한다.
+ */
+public class BoundedTokenStore implements TokenStore, DisposableBean {
+
+    /**
+     * 토큰 하나에 딸린 인증 객체(OAuth2Authentication, 권한 목록 등)의 대략적인 크기.
+     */
+    static final long ENTRY_OVERHEAD_BYTES = 2048;
+
+    private final int maxAccessTokens;
+    private final int maxRefreshTokens;
+
+    private final Map<String, AccessEntry> accessTokens = new ConcurrentHashMap<>();
+    private final Map<String, RefreshEntry> refreshTokens = new ConcurrentHashMap<>();
+    private final Map<String, String> accessTokenByAuthentication = new ConcurrentHashMap<>();
+    private final Map<String, String> accessTokenByRefreshToken = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> accessTokensByClient = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> accessTokensByClientAndUser = new ConcurrentHashMap<>();
+
+    private final AuthenticationKeyGenerator authenticationKeyGenerator =
+        new DefaultAuthenticationKeyGenerator();
+
+    private final TimerWheel timerWheel;
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private final Timer sweepTimer;
+    private final Counter evictions;
+    private final ScheduledExecutorService sweeper;
+
+    public BoundedTokenStore(int maxAccessTokens, int maxRefreshTokens, long tickMillis,
+        MeterRegistry meterRegistry) {
+        this.maxAccessTokens = maxAccessTokens;
+        this.maxRefreshTokens = maxRefreshTokens;
+        this.timerWheel = new TimerWheel(tickMillis, 1 << 14);
+
+        Gauge.builder("security.token-store.tokens", this.accessTokens, Map::size)
+            .tag("type", "access")
+            .register(meterRegistry);
+        Gauge.builder("security.token-store.tokens", this.refreshTokens, Map::size)
+            .tag("type", "refresh")
+            .register(meterRegistry);
+        Gauge.builder("security.token-store.memory.estimate", this.estimatedBytes, AtomicLong::get)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.sweepTimer = Timer.builder("security.token-store.sweep").register(meterRegistry);
+        this.evictions = Counter.builder("security.token-store.evictions")
+            .register(meterRegistry);
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "token-store-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweeper.scheduleWithFixedDelay(this::sweep, tickMillis, tickMillis,
+            TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        this.sweeper.shutdownNow();
+    }
+
+    /**
+     * 지난 tick 의 칸에 들어있는 토큰 중 만료된 것을 지운다.
+     */
+    public void sweep() {
+        this.sweepTimer.record(() -> this.timerWheel.advance(System.currentTimeMillis(),
+            this::expire));
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return readAuthentication(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        AccessEntry entry = this.accessTokens.get(token);
+        return entry == null ? null : entry.authentication;
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        String tokenValue = token.getValue();
+        if (!this.accessTokens.containsKey(tokenValue)) {
+            ensureCapacity(this.accessTokens, this.maxAccessTokens, false);
+        }
+
+        AccessEntry entry = new AccessEntry(token, authentication,
+            this.authenticationKeyGenerator.extractKey(authentication));
+        // 같은 값의 이전 토큰을 인덱스에서 빼고 새 토큰을 넣는 것을 키 단위로 원자적으로 한다.
+        this.accessTokens.compute(tokenValue, (key, previous) -> {
+            if (previous == null) {
+                this.estimatedBytes.addAndGet(estimate(tokenValue));
+            } else {
+                unlink(previous, tokenValue);
+            }
+            link(entry, tokenValue);
+            return entry;
+        });
+
+        if (token.getExpiration() != null) {
+            this.timerWheel.schedule(token.getValue(), false, token.getExpiration().getTime());
+        }
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        AccessEntry entry = this.accessTokens.get(tokenValue);
+        return entry == null ? null : entry.token;
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        removeAccessToken(token.getValue());
+    }
+
+    private void removeAccessToken(String tokenValue) {
+        this.accessTokens.computeIfPresent(tokenValue, (key, entry) -> {
+            unlink(entry, tokenValue);
+            this.estimatedBytes.addAndGet(-estimate(tokenValue));
+            return null;
+        });
+    }
+
+    /**
+     * 토큰을 보조 인덱스에 넣는다. accessTokens 의 해당 키를 compute 하는 안에서 호출한다.
+     */
+    private void link(AccessEntry entry, String tokenValue) {
+        this.accessTokenByAuthentication.put(entry.authenticationKey, tokenValue);
+        index(this.accessTokensByClient, entry.clientId, tokenValue);
+        index(this.accessTokensByClientAndUser, entry.clientAndUser, tokenValue);
+        if (entry.token.getRefreshToken() != null) {
+            this.accessTokenByRefreshToken.put(entry.token.getRefreshToken().getValue(),
+                tokenValue);
+        }
+    }
+
+    private void unlink(AccessEntry entry, String tokenValue) {
+        this.accessTokenByAuthentication.remove(entry.authenticationKey, tokenValue);
+        unindex(this.accessTokensByClient, entry.clientId, tokenValue);
+        unindex(this.accessTokensByClientAndUser, entry.clientAndUser, tokenValue);
+        if (entry.token.getRefreshToken() != null) {
+            this.accessTokenByRefreshToken.remove(entry.token.getRefreshToken().getValue(),
+                tokenValue);
+        }
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken,
+        OAuth2Authentication authentication) {
+        if (!this.refreshTokens.containsKey(refreshToken.getValue())) {
+            ensureCapacity(this.refreshTokens, this.maxRefreshTokens, true);
+        }
+
+        RefreshEntry previous = this.refreshTokens.put(refreshToken.getValue(),
+            new RefreshEntry(refreshToken, authentication));
+        if (previous == null) {
+            this.estimatedBytes.addAndGet(estimate(refreshToken.getValue()));
+        }
+
+        Date expiration = expirationOf(refreshToken);
+        if (expiration != null) {
+            this.timerWheel.schedule(refreshToken.getValue(), true, expiration.getTime());
+        }
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        RefreshEntry entry = this.refreshTokens.get(tokenValue);
+        return entry == null ? null : entry.token;
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        RefreshEntry entry = this.refreshTokens.get(token.getValue());
+        return entry == null ? null : entry.authentication;
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken token) {
+        removeRefreshToken(token.getValue());
+    }
+
+    private void removeRefreshToken(String tokenValue) {
+        if (this.refreshTokens.remove(tokenValue) != null) {
+            this.estimatedBytes.addAndGet(-estimate(tokenValue));
+        }
+        this.accessTokenByRefreshToken.remove(tokenValue);
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        String accessToken = this.accessTokenByRefreshToken.remove(refreshToken.getValue());
+        if (accessToken != null) {
+            removeAccessToken(accessToken);
+        }
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        String tokenValue = this.accessTokenByAuthentication
+            .get(this.authenticationKeyGenerator.extractKey(authentication));
+        return tokenValue == null ? null : readAccessToken(tokenValue);
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId,
+        String userName) {
+        return find(this.accessTokensByClientAndUser, clientAndUser(clientId, userName));
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return find(this.accessTokensByClient, clientId);
+    }
+
+    public int getAccessTokenCount() {
+        return this.accessTokens.size();
+    }
+
+    public int getRefreshTokenCount() {
+        return this.refreshTokens.size();
+    }
+
+    private Collection<OAuth2AccessToken> find(Map<String, Set<String>> index, String key) {
+        Set<String> tokenValues = index.get(key);
+        if (tokenValues == null) {
+            return Collections.emptyList();
+        }
+        return tokenValues.stream()
+            .map(this::readAccessToken)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    private void expire(String tokenValue, boolean refresh) {
+        long now = System.currentTimeMillis();
+        if (refresh) {
+            RefreshEntry entry = this.refreshTokens.get(tokenValue);
+            Date expiration = entry == null ? null : expirationOf(entry.token);
+            if (expiration != null && expiration.getTime() <= now) {
+                removeRefreshToken(tokenValue);
+            }
+        } else {
+            // 같은 값으로 다시 저장된 토큰은 만료 시각이 다르므로 지우지 않는다.
+            this.accessTokens.computeIfPresent(tokenValue, (key, entry) -> {
+                if (entry.token.getExpiration() == null
+                    || entry.token.getExpiration().getTime() > now) {
+                    return entry;
+                }
+                unlink(entry, tokenValue);
+                this.estimatedBytes.addAndGet(-estimate(tokenValue));
+                return null;
+            });
+        }
+    }
+
+    private void ensureCapacity(Map<String, ?> store, int max, boolean refresh) {
+        if (store.size() < max) {
+            return;
+        }
+        synchronized (this.evictionLock) {
+            if (store.size() < max) {
+                return;
+            }
+            sweep();
+            // 한 번에 상한의 1/10 을 비워서 다음 저장들이 곧바로 다시 제거하지 않게 한다.
+            int lowWater = max - Math.max(1, max / 10);
+            int overflow = store.size() - lowWater;
+            if (overflow <= 0) {
+                return;
+            }
+            // 곧 만료될 토큰부터, 그래도 부족하면 (만료가 없는 토큰) 임의의 토큰을 지운다.
+            this.timerWheel.evictSoonest(refresh, overflow, this::evict);
+            Iterator<String> keys = store.keySet().iterator();
+            while (store.size() > lowWater && keys.hasNext()) {
+                evict(keys.next(), refresh);
+            }
+        }
+    }
+
+    private boolean evict(String tokenValue, boolean refresh) {
+        boolean present = refresh
+            ? this.refreshTokens.containsKey(tokenValue)
+            : this.accessTokens.containsKey(tokenValue);
+        if (!present) {
+            return false;
+        }
+        if (refresh) {
+            removeRefreshToken(tokenValue);
+        } else {
+            removeAccessToken(tokenValue);
+        }
+        this.evictions.increment();
+        return true;
+    }
+
+    private static void index(Map<String, Set<String>> index, String key, String tokenValue) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(tokenValue);
+    }
+
+    private static void unindex(Map<String, Set<String>> index, String key, String tokenValue) {
+        index.computeIfPresent(key, (k, values) -> {
+            values.remove(tokenValue);
+            return values.isEmpty() ? null : values;
+        });
+    }
+
+    private static long estimate(String tokenValue) {
+        return ENTRY_OVERHEAD_BYTES + 2L * tokenValue.length();
+    }
+
+    private static Date expirationOf(OAuth2RefreshToken refreshToken) {
+        return refreshToken instanceof ExpiringOAuth2RefreshToken
+            ? ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration()
+            : null;
+    }
+
+    private static String clientAndUser(String clientId, String userName) {
+        return clientId + (userName == null ? "" : ":" + userName);
+    }
+
+    private static final class AccessEntry {
+
+        private final OAuth2AccessToken token;
+        private final OAuth2Authentication authentication;
+        private final String authenticationKey;
+        private final String clientId;
+        private final String clientAndUser;
+
+        private AccessEntry(OAuth2AccessToken token, OAuth2Authentication authentication,
+            String authenticationKey) {
+            this.token = token;
+            this.authentication = authentication;
+            this.authenticationKey = authenticationKey;
+            this.clientId = authentication.getOAuth2Request().getClientId();
+            this.clientAndUser = clientAndUser(this.clientId,
+                authentication.getUserAuthentication() == null
+                    ? null
+                    : authentication.getUserAuthentication().getName());
+        }
+    }
+
+    private static final class RefreshEntry {
+
+        private final OAuth2RefreshToken token;
+        private final OAuth2Authentication authentication;
+
+        private RefreshEntry(OAuth2RefreshToken token, OAuth2Authentication authentication) {
+            this.token = token;
+            this.authentication = authentication;
+        }
+    }
+
+    @FunctionalInterface
+    private interface TimeoutHandler {
+
+        boolean handle(String tokenValue, boolean refresh);
+    }
+
+    /**
+     * hashed timer wheel. 만료 tick 을 칸 수로 나눈 나머지 칸에 넣고, 칸을 지날 때 tick 이 지난 것만 처리한다.
+     * 한 바퀴보다 먼 만료는 같은 칸에 남아 있다가 다음 바퀴에 처리된다.
+     */
+    private static final class TimerWheel {
+
+        private final long tickMillis;
+        private final int mask;
+        private final ConcurrentLinkedQueue<Timeout>[] buckets;
+        private volatile long lastTick;
+
+        @SuppressWarnings("unchecked")
+        private TimerWheel(long tickMillis, int size) {
+            this.tickMillis = tickMillis;
+            this.mask = size - 1;
+            this.buckets = new ConcurrentLinkedQueue[size];
+            for (int i = 0; i < size; i++) {
+                this.buckets[i] = new ConcurrentLinkedQueue<>();
+            }
+            this.lastTick = System.currentTimeMillis() / tickMillis;
+        }
+
+        private void schedule(String tokenValue, boolean refresh, long expiresAtMillis) {
+            // 이미 지난 시각이면 다음 sweep 에서 처리되도록 다음 칸에 넣는다.
+            long tick = Math.max(expiresAtMillis / this.tickMillis, this.lastTick + 1);
+            this.buckets[(int) (tick & this.mask)].add(new Timeout(tokenValue, refresh, tick));
+        }
+
+        private synchronized void advance(long nowMillis, ExpiryHandler handler) {
+            long now = nowMillis / this.tickMillis;
+            long from = Math.max(this.lastTick + 1, now - this.mask);
+            for (long tick = from; tick <= now; tick++) {
+                Iterator<Timeout> timeouts = this.buckets[(int) (tick & this.mask)].iterator();
+                while (timeouts.hasNext()) {
+                    Timeout timeout = timeouts.next();
+                    if (timeout.tick <= now) {
+                        timeouts.remove();
+                        handler.expire(timeout.tokenValue, timeout.refresh);
+                    }
+                }
+            }
+            this.lastTick = now;
+        }
+
+        private synchronized void evictSoonest(boolean refresh, int count,
+            TimeoutHandler handler) {
+            int evicted = 0;
+            for (long tick = this.lastTick + 1; tick <= this.lastTick + this.mask + 1; tick++) {
+                Iterator<Timeout> timeouts = this.buckets[(int) (tick & this.mask)].iterator();
+                while (timeouts.hasNext() && evicted < count) {
+                    Timeout timeout = timeouts.next();
+                    if (timeout.refresh == refresh) {
+                        timeouts.remove();
+                        if (handler.handle(timeout.tokenValue, refresh)) {
+                            evicted++;
+                        }
+                    }
+                }
+                if (evicted >= count) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ExpiryHandler {
+
+        void expire(String tokenValue, boolean refresh);
+    }
+
+    private static final class Timeout {
+
+        private final String tokenValue;
+        private final boolean refresh;
+        private final long tick;
+
+        private Timeout(String tokenValue, boolean refresh, long tick) {
+            this.tokenValue = tokenValue;
+            this.refresh = refresh;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package me.kirok.restapi.commons;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 성공한 matches 결과를 잠깐 기억해서 같은 자격 증명이 반복되면 해싱을 건너뛰는 PasswordEncoder.
+ *
+ * <p>캐시 키는 (저장된 해시, 입력된 비밀번호) 의 HMAC-SHA256 이고, HMAC 키는 프로세스마다 새로 만든다.
+ * 그래서 캐시에 평문 비밀번호가 남지 않고, 저장된 해시가 바뀌면 자연히 캐시 미스가 된다.
+ * 실패한 결과는 캐싱하지 않는다.
+ *
+ * <p>변하지 않는 클라이언트 secret 처럼 같은 값이 반복 검증되는 경우에만 사용한다.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final PasswordEncoder delegate;
+    private final SecretKeySpec key;
+    private final Cache<String, Boolean> verified;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, Duration ttl, long maxSize,
+        MeterRegistry meterRegistry, String cacheName) {
+        this.delegate = delegate;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.verified = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxSize)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.verified, cacheName);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return this.delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return this.delegate.matches(rawPassword, encodedPassword);
+        }
+        String cacheKey = cacheKey(rawPassword, encodedPassword);
+        if (this.verified.getIfPresent(cacheKey) != null) {
+            return true;
+        }
+        boolean matches = this.delegate.matches(rawPassword, encodedPassword);
+        if (matches) {
+            this.verified.put(cacheKey, Boolean.TRUE);
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void invalidateAll() {
+        this.verified.invalidateAll();
+    }
+
+    private String cacheKey(CharSequence rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(this.key);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
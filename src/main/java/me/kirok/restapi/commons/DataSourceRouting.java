@@ -0,0 +1,54 @@
+package me.kirok.restapi.commons;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드의 읽기 전용 트랜잭션을 replica 대신 primary 로 보낼지 정한다.
+ * {@link ReadWriteRoutingDataSource} 가 이 값을 보고 라우팅한다. routing 을 쓰지 않으면 아무 효과가 없다.
+ *
+ * <p>방금 쓴 데이터를 읽어야 하는 요청(read-your-writes)이나, 시작할 때 색인/카운터를 채우는 것처럼
+ * replica 지연을 허용할 수 없는 읽기에 사용한다.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<int[]> PINS = ThreadLocal.withInitial(() -> new int[1]);
+
+    private DataSourceRouting() {
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINS.get()[0] > 0;
+    }
+
+    public static <T> T callOnPrimary(Supplier<T> action) {
+        pin();
+        try {
+            return action.get();
+        } finally {
+            unpin();
+        }
+    }
+
+    public static void runOnPrimary(Runnable action) {
+        pin();
+        try {
+            action.run();
+        } finally {
+            unpin();
+        }
+    }
+
+    /**
+     * unpin() 과 짝을 맞춰 호출한다. 중첩해서 호출할 수 있다.
+     */
+    static void pin() {
+        PINS.get()[0]++;
+    }
+
+    static void unpin() {
+        int[] pins = PINS.get();
+        if (--pins[0] <= 0) {
+            PINS.remove();
+        }
+    }
+}
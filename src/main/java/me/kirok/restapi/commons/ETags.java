@@ -0,0 +1,50 @@
+package me.kirok.restapi.commons;
+
+/**
+ * 엔티티 버전(@Version)으로 만드는 strong ETag 와 조건부 요청 헤더 비교.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * If-None-Match 는 weak 비교를 사용한다. (RFC 7232 3.2)
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        return matches(ifNoneMatch, etag, true);
+    }
+
+    /**
+     * If-Match 는 strong 비교를 사용한다. (RFC 7232 3.1)
+     */
+    public static boolean matchesIfMatch(String ifMatch, String etag) {
+        return matches(ifMatch, etag, false);
+    }
+
+    private static boolean matches(String header, String etag, boolean weak) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if ("*".equals(value)) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                if (!weak) {
+                    continue;
+                }
+                value = value.substring(2);
+            }
+            if (value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
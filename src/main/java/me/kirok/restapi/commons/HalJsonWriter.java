@@ -0,0 +1,49 @@
+package me.kirok.restapi.commons;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * 컨트롤러가 응답을 직접 바이트로 만들어야 할 때 사용한다. (응답 캐시 등)
+ * Spring MVC 가 application/hal+json 응답에 쓰는 ObjectMapper 를 그대로 사용하기 때문에
+ * 컨버터를 거친 응답과 같은 JSON 이 만들어진다.
+ */
+@Component
+public class HalJsonWriter {
+
+    private final RequestMappingHandlerAdapter handlerAdapter;
+
+    private volatile ObjectMapper objectMapper;
+
+    public HalJsonWriter(RequestMappingHandlerAdapter handlerAdapter) {
+        this.handlerAdapter = handlerAdapter;
+    }
+
+    public byte[] write(Object value) throws JsonProcessingException {
+        return objectMapper().writeValueAsBytes(value);
+    }
+
+    private ObjectMapper objectMapper() {
+        ObjectMapper mapper = this.objectMapper;
+        if (mapper == null) {
+            mapper = findHalObjectMapper();
+            this.objectMapper = mapper;
+        }
+        return mapper;
+    }
+
+    private ObjectMapper findHalObjectMapper() {
+        for (HttpMessageConverter<?> converter : this.handlerAdapter.getMessageConverters()) {
+            if (converter instanceof MappingJackson2HttpMessageConverter
+                && converter.getSupportedMediaTypes().contains(MediaTypes.HAL_JSON)) {
+                return ((MappingJackson2HttpMessageConverter) converter).getObjectMapper();
+            }
+        }
+        throw new IllegalStateException("no message converter for " + MediaTypes.HAL_JSON);
+    }
+}
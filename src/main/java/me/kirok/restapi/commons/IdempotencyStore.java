@@ -0,0 +1,203 @@
+package me.kirok.restapi.commons;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Idempotency-Key 헤더가 붙은 요청을 키마다 한 번만 처리한다.
+ * 키별로 요청 본문의 해시와 처리 결과(상태 코드, 헤더, 본문 바이트)를 보관하고,
+ * 같은 키로 같은 본문이 다시 오면 처리하지 않고 보관한 응답을 그대로 돌려준다.
+ * 아직 처리 중인 키로 요청이 오면 먼저 온 요청이 끝날 때까지 기다린다.
+ *
+ * <p>보관한 응답 본문의 전체 바이트 크기로 제한되며 ttl 이 지나면 제거된다.
+ * 예외로 끝난 요청은 보관하지 않으므로 같은 키로 다시 시도할 수 있다.
+ * 키는 사용자별로 구분하므로 인증되지 않은 요청에는 사용할 수 없다.
+ * 결과는 idempotency.requests{result} 메트릭으로 노출된다.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Cache<String, Entry> cache;
+
+    private final long waitTimeoutMillis;
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter mismatched;
+    private final Counter timedOut;
+
+    public IdempotencyStore(MeterRegistry meterRegistry,
+        @Value("${idempotency.max-bytes:16777216}") long maxBytes,
+        @Value("${idempotency.ttl-ms:86400000}") long ttlMillis,
+        @Value("${idempotency.wait-timeout-ms:5000}") long waitTimeoutMillis) {
+        // 처리 중인 항목은 무게가 0 이라 크기 제한으로 제거되지 않는다.
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((String key, Entry entry) -> entry.weight())
+            .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+            .recordStats()
+            .build();
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "idempotency");
+        this.executed = meterRegistry.counter("idempotency.requests", "result", "executed");
+        this.replayed = meterRegistry.counter("idempotency.requests", "result", "replayed");
+        this.mismatched = meterRegistry.counter("idempotency.requests", "result", "mismatched");
+        this.timedOut = meterRegistry.counter("idempotency.requests", "result", "timed-out");
+    }
+
+    public static boolean isValidKey(String key) {
+        return key != null && !key.isBlank() && key.length() <= MAX_KEY_LENGTH;
+    }
+
+    /**
+     * @param owner 키의 범위. 사용자가 다르면 같은 키라도 다른 요청으로 본다.
+     * @param request 요청을 비교할 때 쓰는 바이트. 같은 요청이면 같은 바이트여야 한다.
+     * @return 처음 온 요청이면 action 의 결과, 반복된 요청이면 보관한 응답.
+     * 같은 키로 다른 요청이 오면 422, 먼저 온 요청이 제한 시간 안에 끝나지 않으면 409
+     */
+    public ResponseEntity<byte[]> execute(String owner, String key, byte[] request,
+        Callable<ResponseEntity<byte[]>> action) throws Exception {
+        Assert.hasText(owner, "owner must not be empty");
+        String cacheKey = owner + '\n' + key;
+        String fingerprint = fingerprint(request);
+        while (true) {
+            Entry entry = new Entry(fingerprint, new CompletableFuture<>());
+            Entry existing = this.cache.asMap().putIfAbsent(cacheKey, entry);
+            if (existing == null) {
+                return run(cacheKey, entry, action);
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                this.mismatched.increment();
+                return ResponseEntity.unprocessableEntity().build();
+            }
+
+            StoredResponse stored;
+            try {
+                stored = existing.result.get(this.waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                this.timedOut.increment();
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            if (stored != null) {
+                this.replayed.increment();
+                return stored.toResponse();
+            }
+            // 먼저 온 요청이 실패해서 키가 비었다. 다시 차지해 본다.
+        }
+    }
+
+    private ResponseEntity<byte[]> run(String cacheKey, Entry entry,
+        Callable<ResponseEntity<byte[]>> action) throws Exception {
+        StoredResponse stored = null;
+        try {
+            ResponseEntity<byte[]> response = action.call();
+            stored = new StoredResponse(response);
+            this.executed.increment();
+            return response;
+        } finally {
+            if (stored == null) {
+                this.cache.asMap().remove(cacheKey, entry);
+                entry.result.complete(null);
+            } else {
+                // 무게는 replace 할 때 계산되므로 먼저 완료해야 본문 크기로 무게가 매겨진다.
+                entry.result.complete(stored);
+                this.cache.asMap().replace(cacheKey, entry, new Entry(entry.fingerprint,
+                    entry.result));
+            }
+        }
+    }
+
+    /**
+     * 보류 중인 제거를 처리한 뒤의 항목 수.
+     */
+    long size() {
+        this.cache.cleanUp();
+        return this.cache.estimatedSize();
+    }
+
+    private static String fingerprint(byte[] request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(request);
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private final CompletableFuture<StoredResponse> result;
+
+        private Entry(String fingerprint, CompletableFuture<StoredResponse> result) {
+            this.fingerprint = fingerprint;
+            this.result = result;
+        }
+
+        private int weight() {
+            StoredResponse stored = this.result.getNow(null);
+            return stored == null ? 0 : stored.weight();
+        }
+    }
+
+    private static final class StoredResponse {
+
+        private final HttpStatus status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private StoredResponse(ResponseEntity<byte[]> response) {
+            this.status = response.getStatusCode();
+            this.headers = HttpHeaders.readOnlyHttpHeaders(response.getHeaders());
+            this.body = response.getBody();
+        }
+
+        private int weight() {
+            int weight = this.body == null ? 0 : this.body.length;
+            for (var header : this.headers.entrySet()) {
+                weight += header.getKey().length();
+                for (String value : header.getValue()) {
+                    weight += value.getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+            return weight;
+        }
+
+        private ResponseEntity<byte[]> toResponse() {
+            return ResponseEntity.status(this.status)
+                .headers(this.headers)
+                .header(REPLAYED_HEADER, "true")
+                .body(this.body);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package me.kirok.restapi.commons;
+
+/**
+ * int 키마다 같은 개수(width)의 long 을 저장하는 해시 맵.
+ *
+ * <p>키와 값을 원시 타입 배열에 linear probing 으로 저장해서 Integer, long[] 박싱과 엔트리 객체가 없다.
+ * 값은 칸마다 width 개씩 이어서 long 배열 하나에 둔다.
+ * 지우기는 지원하지 않는다. 스레드 안전하지 않다.
+ */
+public class IntLongArrayMap {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final int width;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private long[] values;
+    private boolean[] used = new boolean[INITIAL_CAPACITY];
+
+    private int size;
+
+    public IntLongArrayMap(int width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("width must be positive: " + width);
+        }
+        this.width = width;
+        this.values = new long[INITIAL_CAPACITY * width];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return 키가 있으면 get(slot, index) 에 넘길 위치, 없으면 -1
+     */
+    public int indexOf(int key) {
+        int mask = this.keys.length - 1;
+        for (int slot = hash(key) & mask; this.used[slot]; slot = (slot + 1) & mask) {
+            if (this.keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return slot 에 저장된 index 번째 값
+     */
+    public long get(int slot, int index) {
+        return this.values[slot * this.width + index];
+    }
+
+    /**
+     * 키가 이미 있으면 값을 바꾼다. values 의 길이는 width 와 같아야 한다.
+     */
+    public void put(int key, long... values) {
+        if (values.length != this.width) {
+            throw new IllegalArgumentException(
+                "expected " + this.width + " values but got " + values.length);
+        }
+        if (this.size + 1 > this.keys.length * LOAD_FACTOR) {
+            resize(this.keys.length * 2);
+        }
+        int mask = this.keys.length - 1;
+        int slot = hash(key) & mask;
+        while (this.used[slot] && this.keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (!this.used[slot]) {
+            this.used[slot] = true;
+            this.keys[slot] = key;
+            this.size++;
+        }
+        System.arraycopy(values, 0, this.values, slot * this.width, this.width);
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = this.keys;
+        long[] oldValues = this.values;
+        boolean[] oldUsed = this.used;
+
+        this.keys = new int[capacity];
+        this.values = new long[capacity * this.width];
+        this.used = new boolean[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) {
+                continue;
+            }
+            int slot = hash(oldKeys[i]) & mask;
+            while (this.used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            this.used[slot] = true;
+            this.keys[slot] = oldKeys[i];
+            System.arraycopy(oldValues, i * this.width, this.values, slot * this.width,
+                this.width);
+        }
+    }
+
+    /**
+     * 연속된 id 가 인접한 칸에 몰리지 않도록 섞는다.
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
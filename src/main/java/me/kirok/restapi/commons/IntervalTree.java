@@ -0,0 +1,213 @@
+package me.kirok.restapi.commons;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 닫힌 구간 [start, end] 와 int 값을 저장하는 interval tree.
+ *
+ * <p>(start, value) 순서의 treap 이고, 각 노드에 서브트리의 최대 end 를 저장해서
+ * 겹치는 구간 조회를 O(log n + k) 에 처리한다. 노드는 객체 대신 원시 타입 배열에 저장해서
+ * 수백만 개의 구간도 적은 메모리로 유지한다. 스레드 안전하지 않다.
+ */
+public class IntervalTree {
+
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] start = new long[INITIAL_CAPACITY];
+    private long[] end = new long[INITIAL_CAPACITY];
+    private long[] maxEnd = new long[INITIAL_CAPACITY];
+    private int[] value = new int[INITIAL_CAPACITY];
+    private int[] priority = new int[INITIAL_CAPACITY];
+    private int[] left = new int[INITIAL_CAPACITY];
+    private int[] right = new int[INITIAL_CAPACITY];
+
+    private int root = NIL;
+    private int allocated;
+    private int freeHead = NIL;
+    private int size;
+
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * @return 조회를 계속하려면 true
+         */
+        boolean visit(long start, long end, int value);
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public void insert(long start, long end, int value) {
+        int node = allocate(start, end, value);
+        this.root = insert(this.root, node);
+        this.size++;
+    }
+
+    /**
+     * @return (start, value) 가 같은 구간이 있어서 지웠다면 true
+     */
+    public boolean remove(long start, int value) {
+        int before = this.size;
+        this.root = remove(this.root, start, value);
+        return this.size < before;
+    }
+
+    /**
+     * [from, to] 와 겹치는 구간을 start 순서로 방문한다.
+     */
+    public void query(long from, long to, Visitor visitor) {
+        query(this.root, from, to, visitor);
+    }
+
+    private boolean query(int node, long from, long to, Visitor visitor) {
+        if (node == NIL || this.maxEnd[node] < from) {
+            return true;
+        }
+        if (!query(this.left[node], from, to, visitor)) {
+            return false;
+        }
+        // 오른쪽 서브트리는 start 가 더 크므로 볼 필요가 없다.
+        if (this.start[node] > to) {
+            return true;
+        }
+        if (this.end[node] >= from
+            && !visitor.visit(this.start[node], this.end[node], this.value[node])) {
+            return false;
+        }
+        return query(this.right[node], from, to, visitor);
+    }
+
+    private int insert(int node, int inserted) {
+        if (node == NIL) {
+            return inserted;
+        }
+        if (compare(this.start[inserted], this.value[inserted], node) < 0) {
+            this.left[node] = insert(this.left[node], inserted);
+            if (this.priority[this.left[node]] > this.priority[node]) {
+                node = rotateRight(node);
+            }
+        } else {
+            this.right[node] = insert(this.right[node], inserted);
+            if (this.priority[this.right[node]] > this.priority[node]) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private int remove(int node, long start, int value) {
+        if (node == NIL) {
+            return NIL;
+        }
+        int cmp = compare(start, value, node);
+        if (cmp < 0) {
+            this.left[node] = remove(this.left[node], start, value);
+        } else if (cmp > 0) {
+            this.right[node] = remove(this.right[node], start, value);
+        } else {
+            int merged = merge(this.left[node], this.right[node]);
+            release(node);
+            this.size--;
+            return merged;
+        }
+        update(node);
+        return node;
+    }
+
+    private int merge(int a, int b) {
+        if (a == NIL) {
+            return b;
+        }
+        if (b == NIL) {
+            return a;
+        }
+        if (this.priority[a] > this.priority[b]) {
+            this.right[a] = merge(this.right[a], b);
+            update(a);
+            return a;
+        }
+        this.left[b] = merge(a, this.left[b]);
+        update(b);
+        return b;
+    }
+
+    private int rotateRight(int node) {
+        int pivot = this.left[node];
+        this.left[node] = this.right[pivot];
+        this.right[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private int rotateLeft(int node) {
+        int pivot = this.right[node];
+        this.right[node] = this.left[pivot];
+        this.left[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(int node) {
+        long max = this.end[node];
+        if (this.left[node] != NIL) {
+            max = Math.max(max, this.maxEnd[this.left[node]]);
+        }
+        if (this.right[node] != NIL) {
+            max = Math.max(max, this.maxEnd[this.right[node]]);
+        }
+        this.maxEnd[node] = max;
+    }
+
+    private int compare(long start, int value, int node) {
+        int cmp = Long.compare(start, this.start[node]);
+        return cmp != 0 ? cmp : Integer.compare(value, this.value[node]);
+    }
+
+    private int allocate(long start, long end, int value) {
+        int node;
+        if (this.freeHead != NIL) {
+            node = this.freeHead;
+            this.freeHead = this.left[node];
+        } else {
+            if (this.allocated == this.start.length) {
+                grow();
+            }
+            node = this.allocated++;
+        }
+        this.start[node] = start;
+        this.end[node] = end;
+        this.maxEnd[node] = end;
+        this.value[node] = value;
+        this.priority[node] = ThreadLocalRandom.current().nextInt();
+        this.left[node] = NIL;
+        this.right[node] = NIL;
+        return node;
+    }
+
+    /**
+     * 지운 노드는 left 를 다음 포인터로 사용하는 free list 에 넣어서 재사용한다.
+     */
+    private void release(int node) {
+        this.left[node] = this.freeHead;
+        this.right[node] = NIL;
+        this.freeHead = node;
+    }
+
+    private void grow() {
+        int capacity = this.start.length * 2;
+        this.start = Arrays.copyOf(this.start, capacity);
+        this.end = Arrays.copyOf(this.end, capacity);
+        this.maxEnd = Arrays.copyOf(this.maxEnd, capacity);
+        this.value = Arrays.copyOf(this.value, capacity);
+        this.priority = Arrays.copyOf(this.priority, capacity);
+        this.left = Arrays.copyOf(this.left, capacity);
+        this.right = Arrays.copyOf(this.right, capacity);
+    }
+}
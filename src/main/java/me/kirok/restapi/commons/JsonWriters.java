@@ -0,0 +1,127 @@
+package me.kirok.restapi.commons;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Links;
+
+/**
+ * 직접 작성한 JsonSerializer 에서 공통으로 쓰는 쓰기 함수.
+ */
+public final class JsonWriters {
+
+    private static final int MAX_DATE_TIME_LENGTH = 29;
+
+    private JsonWriters() {
+    }
+
+    /**
+     * jackson-datatype-jsr310 의 기본 형식(ISO_LOCAL_DATE_TIME)과 같은 문자열을 String 을 만들지 않고 쓴다.
+     * WRITE_DATES_AS_TIMESTAMPS 가 켜져 있거나 연도가 네 자리를 넘으면 기본 직렬화를 사용한다.
+     */
+    public static void writeLocalDateTime(JsonGenerator gen, SerializerProvider provider,
+        LocalDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeValue(value, gen);
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+
+        char[] buffer = new char[MAX_DATE_TIME_LENGTH];
+        int length = 0;
+        length = writeDigits(buffer, length, year, 4);
+        buffer[length++] = '-';
+        length = writeDigits(buffer, length, value.getMonthValue(), 2);
+        buffer[length++] = '-';
+        length = writeDigits(buffer, length, value.getDayOfMonth(), 2);
+        buffer[length++] = 'T';
+        length = writeDigits(buffer, length, value.getHour(), 2);
+        buffer[length++] = ':';
+        length = writeDigits(buffer, length, value.getMinute(), 2);
+        buffer[length++] = ':';
+        length = writeDigits(buffer, length, value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano != 0) {
+            // 끝의 0 은 쓰지 않는다.
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buffer[length++] = '.';
+            length = writeDigits(buffer, length, nano, digits);
+        }
+        gen.writeString(buffer, 0, length);
+    }
+
+    /**
+     * HAL 의 _links 값을 쓴다. 같은 rel 이 여러 개면 배열로 쓴다. (Jackson2HalModule 과 같은 형태)
+     */
+    public static void writeHalLinks(JsonGenerator gen, Links links) throws IOException {
+        Map<String, List<Link>> byRel = new LinkedHashMap<>();
+        for (Link link : links) {
+            byRel.computeIfAbsent(link.getRel().value(), rel -> new ArrayList<>(1)).add(link);
+        }
+        gen.writeStartObject();
+        for (Map.Entry<String, List<Link>> entry : byRel.entrySet()) {
+            gen.writeFieldName(entry.getKey());
+            List<Link> sameRel = entry.getValue();
+            if (sameRel.size() == 1) {
+                writeHalLink(gen, sameRel.get(0));
+            } else {
+                gen.writeStartArray();
+                for (Link link : sameRel) {
+                    writeHalLink(gen, link);
+                }
+                gen.writeEndArray();
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeHalLink(JsonGenerator gen, Link link) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("href", link.getHref());
+        if (link.isTemplated()) {
+            gen.writeBooleanField("templated", true);
+        }
+        writeOptional(gen, "hreflang", link.getHreflang());
+        writeOptional(gen, "title", link.getTitle());
+        writeOptional(gen, "type", link.getType());
+        writeOptional(gen, "deprecation", link.getDeprecation());
+        writeOptional(gen, "profile", link.getProfile());
+        writeOptional(gen, "name", link.getName());
+        gen.writeEndObject();
+    }
+
+    private static void writeOptional(JsonGenerator gen, String name, String value)
+        throws IOException {
+        if (value != null) {
+            gen.writeStringField(name, value);
+        }
+    }
+
+    private static int writeDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + width;
+    }
+}
@@ -0,0 +1,127 @@
+package me.kirok.restapi.commons;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 컨트롤러 링크를 만든다.
+ *
+ * <p>linkTo() 는 호출할 때마다 요청에서 URI 를 다시 만들고 매핑을 리플렉션으로 찾는다.
+ * 여기서는 컨트롤러의 기준 URI 를 요청당 한 번만 만들어 요청 속성에 두고, 항목 링크는 id 를 이어 붙여 만든다.
+ * links.base-uri 를 설정하면 요청과 상관없이 시작할 때 한 번만 만든다.
+ * profile 링크는 links.profile-base 를 사용하고, 비어 있으면 기준 URI 의 /docs/index.html 을 사용한다.
+ */
+@Component
+public class LinkFactory {
+
+    private static final String REQUEST_ATTRIBUTE = LinkFactory.class.getName() + ".BASES";
+    private static final String PROFILE = "profile";
+    private static final String DOCS_PATH = "/docs/index.html";
+
+    private final String baseUri;
+
+    private final String profileBase;
+
+    private final Map<Class<?>, String> configuredBases = new ConcurrentHashMap<>();
+
+    private final Map<String, Link> profiles = new ConcurrentHashMap<>();
+
+    public LinkFactory(@Value("${links.base-uri:}") String baseUri,
+        @Value("${links.profile-base:}") String profileBase) {
+        this.baseUri = trimTrailingSlash(baseUri);
+        this.profileBase = profileBase.isBlank() && !this.baseUri.isEmpty()
+            ? this.baseUri + DOCS_PATH
+            : profileBase;
+    }
+
+    /**
+     * 컨트롤러의 기준 URI. (예: http://localhost:8080/api/events)
+     */
+    public String base(Class<?> controller) {
+        if (!this.baseUri.isEmpty()) {
+            return this.configuredBases.computeIfAbsent(controller,
+                c -> this.baseUri + mappingPath(c));
+        }
+        Map<Class<?>, String> bases = requestBases();
+        if (bases == null) {
+            return linkTo(controller).toUri().toString();
+        }
+        return bases.computeIfAbsent(controller, c -> linkTo(c).toUri().toString());
+    }
+
+    public Link self(Class<?> controller, Object id) {
+        return Link.of(base(controller) + "/" + id, IanaLinkRelations.SELF);
+    }
+
+    public Link item(Class<?> controller, Object id, String rel) {
+        return Link.of(base(controller) + "/" + id, rel);
+    }
+
+    public Link collection(Class<?> controller, String rel) {
+        return Link.of(base(controller), rel);
+    }
+
+    /**
+     * 문서의 section 으로 가는 profile 링크. section 이 null 이면 문서 첫 페이지로 간다.
+     */
+    public Link profile(String section) {
+        String base = this.profileBase.isBlank() ? requestProfileBase() : this.profileBase;
+        String href = section == null ? base : base + "#" + section;
+        if (!this.profileBase.isBlank()) {
+            return this.profiles.computeIfAbsent(href, h -> Link.of(h, PROFILE));
+        }
+        return Link.of(href, PROFILE);
+    }
+
+    /**
+     * 매핑이 없는 클래스로 linkTo() 를 호출하면 현재 요청의 context path 까지의 URI 가 된다.
+     */
+    private String requestProfileBase() {
+        Map<Class<?>, String> bases = requestBases();
+        if (bases == null) {
+            return linkTo(LinkFactory.class).toUri().toString() + DOCS_PATH;
+        }
+        return bases.computeIfAbsent(LinkFactory.class,
+            c -> linkTo(c).toUri().toString() + DOCS_PATH);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Class<?>, String> requestBases() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Class<?>, String> bases = (Map<Class<?>, String>) attributes
+            .getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (bases == null) {
+            // 요청은 한 스레드에서 처리되므로 동기화하지 않는다.
+            bases = new HashMap<>();
+            attributes.setAttribute(REQUEST_ATTRIBUTE, bases, RequestAttributes.SCOPE_REQUEST);
+        }
+        return bases;
+    }
+
+    private static String mappingPath(Class<?> controller) {
+        RequestMapping mapping = AnnotatedElementUtils
+            .findMergedAnnotation(controller, RequestMapping.class);
+        if (mapping == null || mapping.path().length == 0) {
+            return "";
+        }
+        return mapping.path()[0];
+    }
+
+    private static String trimTrailingSlash(String uri) {
+        return uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+    }
+}
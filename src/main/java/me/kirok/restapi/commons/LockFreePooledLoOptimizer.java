@@ -0,0 +1,77 @@
+package me.kirok.restapi.commons;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AbstractOptimizer;
+import org.hibernate.id.enhanced.AccessCallback;
+
+/**
+ * pooled-lo 방식의 ID 할당기.
+ * 시퀀스(또는 MySQL 에서는 시퀀스 테이블)에서 읽은 값을 블록의 시작으로 보고 [lo, lo + incrementSize) 를
+ * 이 노드가 예약한다. 블록 안에서는 CAS 만으로 ID 를 나눠주고, 블록이 소진됐을 때만 한 스레드가
+ * 데이터베이스에서 다음 블록을 가져온다.
+ *
+ * <p>Hibernate 의 PooledLoOptimizer 는 ID 하나를 만들 때마다 synchronized 로 직렬화되지만
+ * 이 구현은 블록 교체 시점에만 잠금을 잡는다. 엔티티의 {@code @GenericGenerator} 에서 optimizer
+ * 파라미터로 클래스 이름을 지정해서 사용한다.
+ */
+public class LockFreePooledLoOptimizer extends AbstractOptimizer {
+
+    private volatile Block block;
+
+    private volatile IntegralDataTypeHolder lastSourceValue;
+
+    public LockFreePooledLoOptimizer(Class returnClass, int incrementSize) {
+        super(returnClass, incrementSize);
+        if (incrementSize < 1) {
+            throw new IllegalArgumentException("increment size must be positive: " + incrementSize);
+        }
+    }
+
+    @Override
+    public Serializable generate(AccessCallback callback) {
+        while (true) {
+            Block current = this.block;
+            if (current != null) {
+                long value = current.next.getAndIncrement();
+                if (value < current.hi) {
+                    return IdentifierGeneratorHelper.getIntegralDataTypeHolder(getReturnClass())
+                        .initialize(value)
+                        .makeValue();
+                }
+            }
+            synchronized (this) {
+                // 다른 스레드가 이미 블록을 교체했다면 다시 시도한다.
+                if (this.block == current) {
+                    IntegralDataTypeHolder sourceValue = callback.getNextValue();
+                    long lo = sourceValue.makeValue().longValue();
+                    this.lastSourceValue = sourceValue;
+                    this.block = new Block(lo, lo + getIncrementSize());
+                }
+            }
+        }
+    }
+
+    @Override
+    public IntegralDataTypeHolder getLastSourceValue() {
+        return this.lastSourceValue;
+    }
+
+    @Override
+    public boolean applyIncrementSizeToSourceValues() {
+        return true;
+    }
+
+    private static final class Block {
+
+        private final long hi;
+        private final AtomicLong next;
+
+        private Block(long lo, long hi) {
+            this.hi = hi;
+            this.next = new AtomicLong(lo);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package me.kirok.restapi.commons;
+
+/**
+ * 비밀번호 해싱 큐가 가득 차서 작업을 받지 못했을 때 발생한다. 503 으로 응답한다.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * @return 원인 체인 중에 이 예외가 있으면 그 예외, 없으면 null
+     */
+    public static PasswordHashingRejectedException findIn(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof PasswordHashingRejectedException) {
+                return (PasswordHashingRejectedException) t;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,39 @@
+package me.kirok.restapi.commons;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 보안 필터 체인(클라이언트 인증 등)이나 컨트롤러에서 해싱 작업이 거절되면 503 으로 응답한다.
+ * 보안 필터보다 앞에 있어야 하므로 가장 먼저 실행된다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PasswordHashingRejectionFilter extends OncePerRequestFilter {
+
+    public static final String RETRY_AFTER_SECONDS = "1";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+        FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServletException | IOException | RuntimeException e) {
+            PasswordHashingRejectedException rejected = PasswordHashingRejectedException.findIn(e);
+            if (rejected == null || response.isCommitted()) {
+                throw e;
+            }
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), rejected.getMessage());
+        }
+    }
+}
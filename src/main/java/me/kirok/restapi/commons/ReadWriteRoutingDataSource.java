@@ -0,0 +1,67 @@
+package me.kirok.restapi.commons;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 읽기 전용 트랜잭션은 replica 풀들에 돌아가며 보내고, 나머지는 primary 로 보낸다.
+ * {@link DataSourceRouting} 으로 primary 에 고정된 스레드는 읽기 전용이어도 primary 를 사용한다.
+ *
+ * <p>트랜잭션의 읽기 전용 여부는 커넥션을 얻은 뒤에 정해지므로
+ * 반드시 LazyConnectionDataSourceProxy 로 감싸서 첫 쿼리 시점에 커넥션을 고르게 한다.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource
+    implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<DataSource> targets = new ArrayList<>();
+
+    private final List<String> replicaKeys = new ArrayList<>();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.targets.add(primary);
+        this.targets.addAll(replicas);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            targets.put(key, replicas.get(i));
+            this.replicaKeys.add(key);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (this.replicaKeys.isEmpty()
+            || DataSourceRouting.isPinnedToPrimary()
+            || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int index = Math.floorMod(this.next.getAndIncrement(), this.replicaKeys.size());
+        return this.replicaKeys.get(index);
+    }
+
+    /**
+     * 애플리케이션 종료 시 primary, replica 풀을 닫는다.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource target : this.targets) {
+            if (target instanceof AutoCloseable) {
+                ((AutoCloseable) target).close();
+            }
+        }
+    }
+}
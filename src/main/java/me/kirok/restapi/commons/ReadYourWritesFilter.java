@@ -0,0 +1,72 @@
+package me.kirok.restapi.commons;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 쓰기 요청(GET, HEAD, OPTIONS 가 아닌 요청)을 보낸 클라이언트에게 쿠키로 primary 고정 만료 시각을 내려주고,
+ * 그 시각 전까지 같은 클라이언트의 요청은 primary 에서 읽게 한다.
+ * 상태를 서버에 두지 않으므로 애플리케이션 인스턴스가 여러 개여도 동작한다.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "primary-until";
+
+    private final long windowMillis;
+
+    public ReadYourWritesFilter(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+        FilterChain filterChain) throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = isWrite(request.getMethod());
+        if (write) {
+            // 본문을 쓰기 시작하면 헤더를 더할 수 없으므로 처리 전에 내려준다.
+            Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(now + this.windowMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, this.windowMillis / 1000));
+            response.addCookie(cookie);
+        }
+
+        if (!write && !pinnedByCookie(request, now)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        DataSourceRouting.pin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DataSourceRouting.unpin();
+        }
+    }
+
+    private boolean pinnedByCookie(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > now;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWrite(String method) {
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+}
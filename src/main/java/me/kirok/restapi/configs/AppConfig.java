@@ -1,16 +1,22 @@
 package me.kirok.restapi.configs;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
 import java.util.Set;
 import me.kirok.restapi.accounts.Account;
 import me.kirok.restapi.accounts.AccountRole;
 import me.kirok.restapi.accounts.AccountService;
+import me.kirok.restapi.commons.BoundedPasswordEncoder;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
@@ -22,9 +28,23 @@ public class AppConfig {
         return new ModelMapper();
     }
 
+    /**
+     * bcrypt 비용(security.password.bcrypt-strength)은 배포 환경의 CPU 에 맞춰 조정한다.
+     * 해싱은 전용 풀(security.password.hashing.*)에서만 실행된다.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+        @Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+        @Value("${security.password.hashing.threads:0}") int threads,
+        @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+            Map.of("bcrypt", new BCryptPasswordEncoder(bcryptStrength)));
+        // bcrypt 가 아닌 id 로 저장된 해시도 검증할 수 있게 기본 인코더에 넘긴다.
+        encoder.setDefaultPasswordEncoderForMatches(
+            PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return new BoundedPasswordEncoder(encoder,
+            threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), queueCapacity,
+            meterRegistry);
     }
 
 //    @Bean
@@ -1,17 +1,31 @@
 package me.kirok.restapi.configs;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import me.kirok.restapi.accounts.AccountService;
+import me.kirok.restapi.commons.CachingPasswordEncoder;
+import me.kirok.restapi.commons.PasswordHashingRejectedException;
+import me.kirok.restapi.commons.PasswordHashingRejectionFilter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.common.exceptions.OAuth2Exception;
 import org.springframework.security.oauth2.config.annotation.configurers.ClientDetailsServiceConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.AuthorizationServerConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.AuthorizationServerConfigurerAdapter;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableAuthorizationServer;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerEndpointsConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerSecurityConfigurer;
+import org.springframework.security.oauth2.provider.error.DefaultWebResponseExceptionTranslator;
+import org.springframework.security.oauth2.provider.error.WebResponseExceptionTranslator;
 import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
 
 @Configuration
 @EnableAuthorizationServer
@@ -19,30 +33,46 @@ public class AuthServerConfig extends AuthorizationServerConfigurerAdapter {
 
     private final PasswordEncoder passwordEncoder;
 
+    private final CachingPasswordEncoder clientSecretEncoder;
+
     private final AuthenticationManager authenticationManager;
 
     private final AccountService accountService;
 
     private final TokenStore tokenStore;
 
+    private final JwtAccessTokenConverter jwtAccessTokenConverter;
+
+    private final WebResponseExceptionTranslator<OAuth2Exception> defaultExceptionTranslator =
+        new DefaultWebResponseExceptionTranslator();
+
     public AuthServerConfig(PasswordEncoder passwordEncoder,
         AuthenticationManager authenticationManager, AccountService accountService,
-        TokenStore tokenStore) {
+        TokenStore tokenStore, ObjectProvider<JwtAccessTokenConverter> jwtAccessTokenConverter,
+        MeterRegistry meterRegistry,
+        @Value("${security.client-secret-cache.ttl-seconds:60}") long clientSecretCacheTtl) {
         this.passwordEncoder = passwordEncoder;
+        // /oauth/token 마다 같은 client secret 을 bcrypt 로 다시 검증하지 않도록 성공한 결과만 잠깐 캐싱한다.
+        this.clientSecretEncoder = new CachingPasswordEncoder(passwordEncoder,
+            Duration.ofSeconds(clientSecretCacheTtl), 1000, meterRegistry,
+            "oauth.client-secrets");
         this.authenticationManager = authenticationManager;
         this.accountService = accountService;
         this.tokenStore = tokenStore;
+        this.jwtAccessTokenConverter = jwtAccessTokenConverter.getIfAvailable();
     }
 
     @Override
     public void configure(AuthorizationServerSecurityConfigurer security) throws Exception {
         security
             .allowFormAuthenticationForClients()
-            .passwordEncoder(passwordEncoder);
+            .passwordEncoder(clientSecretEncoder);
     }
 
     @Override
     public void configure(ClientDetailsServiceConfigurer clients) throws Exception {
+        // 클라이언트 정보가 (다시) 등록되면 이전에 검증된 secret 은 버린다.
+        this.clientSecretEncoder.invalidateAll();
         clients
             .inMemory()
             .withClient("myApp")
@@ -60,7 +90,43 @@ public class AuthServerConfig extends AuthorizationServerConfigurerAdapter {
         endpoints
             .authenticationManager(authenticationManager)
             .userDetailsService(accountService)
-            .tokenStore(tokenStore);
+            .tokenStore(tokenStore)
+            .exceptionTranslator(this::translate);
+
+        // jwt 모드에서는 발급하는 access/refresh 토큰을 서명된 JWT 로 바꾼다.
+        if (jwtAccessTokenConverter != null) {
+            endpoints.accessTokenConverter(jwtAccessTokenConverter);
+        }
+    }
+
+    /**
+     * 비밀번호 해싱 큐가 가득 차서 거절된 토큰 요청은 500 대신 503 으로 응답한다.
+     */
+    private ResponseEntity<OAuth2Exception> translate(Exception e) throws Exception {
+        PasswordHashingRejectedException rejected = PasswordHashingRejectedException.findIn(e);
+        if (rejected == null) {
+            return this.defaultExceptionTranslator.translate(e);
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, PasswordHashingRejectionFilter.RETRY_AFTER_SECONDS)
+            .header(HttpHeaders.CACHE_CONTROL, "no-store")
+            .body(new TemporarilyUnavailableException(rejected.getMessage()));
+    }
+
+    private static class TemporarilyUnavailableException extends OAuth2Exception {
+
+        TemporarilyUnavailableException(String msg) {
+            super(msg);
+        }
+
+        @Override
+        public String getOAuth2ErrorCode() {
+            return "temporarily_unavailable";
+        }
 
+        @Override
+        public int getHttpErrorCode() {
+            return HttpStatus.SERVICE_UNAVAILABLE.value();
+        }
     }
 }
@@ -0,0 +1,74 @@
+package me.kirok.restapi.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import me.kirok.restapi.commons.ReadWriteRoutingDataSource;
+import me.kirok.restapi.commons.ReadYourWritesFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * datasource.replica.urls 가 있을 때만 사용한다. 없으면 Spring Boot 가 spring.datasource 하나로 구성한다.
+ *
+ * <p>읽기 전용 트랜잭션(@Transactional(readOnly = true), Spring Data 의 조회 메소드)은 replica 로,
+ * 나머지는 primary(spring.datasource.*) 로 보낸다. 쓰기 요청을 보낸 클라이언트는
+ * datasource.read-your-writes.window-ms 동안 primary 에서 읽는다.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.replica.urls")
+public class DataSourceConfig {
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties properties,
+        Environment environment,
+        @Value("${datasource.replica.urls}") List<String> replicaUrls,
+        @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+        @Value("${datasource.replica.password:${spring.datasource.password:}}") String password) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url.trim())
+                .username(username)
+                .password(password)
+                .build();
+            binder.bind("datasource.replica.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+        @Value("${datasource.read-your-writes.window-ms:5000}") long windowMillis) {
+        return new ReadYourWritesFilter(windowMillis);
+    }
+}
@@ -1,7 +1,16 @@
 package me.kirok.restapi.configs;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.SecureRandom;
+import java.util.Base64;
+import lombok.extern.slf4j.Slf4j;
 import me.kirok.restapi.accounts.AccountService;
+import me.kirok.restapi.commons.BoundedTokenStore;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,7 +24,10 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.security.oauth2.provider.token.store.InMemoryTokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
 
+@Slf4j
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
@@ -30,11 +42,48 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         this.passwordEncoder = passwordEncoder;
     }
 
+    /**
+     * security.token.store 로 토큰 저장 방식을 고른다.
+     * <ul>
+     *     <li>in-memory (기본값): 토큰을 발급한 노드의 메모리에만 저장한다.</li>
+     *     <li>jwt: 서명된 자체 포함 토큰. 검증에 저장소 조회가 필요 없어서 여러 노드로 확장할 수 있다.</li>
+     *     <li>bounded: 메모리에 저장하되 개수에 상한을 두고 만료된 토큰을 백그라운드에서 지운다.</li>
+     * </ul>
+     */
     @Bean
-    public TokenStore tokenStore() {
+    public TokenStore tokenStore(ObjectProvider<JwtAccessTokenConverter> jwtAccessTokenConverter,
+        ObjectProvider<MeterRegistry> meterRegistry,
+        @Value("${security.token.store:in-memory}") String store,
+        @Value("${security.token.bounded.max-access-tokens:100000}") int maxAccessTokens,
+        @Value("${security.token.bounded.max-refresh-tokens:100000}") int maxRefreshTokens,
+        @Value("${security.token.bounded.sweep-interval-ms:1000}") long sweepIntervalMs) {
+        JwtAccessTokenConverter converter = jwtAccessTokenConverter.getIfAvailable();
+        if (converter != null) {
+            return new JwtTokenStore(converter);
+        }
+        if ("bounded".equals(store)) {
+            return new BoundedTokenStore(maxAccessTokens, maxRefreshTokens, sweepIntervalMs,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+        }
         return new InMemoryTokenStore();
     }
 
+    @Bean
+    @ConditionalOnProperty(name = "security.token.store", havingValue = "jwt")
+    public JwtAccessTokenConverter jwtAccessTokenConverter(
+        @Value("${security.token.jwt.signing-key:}") String signingKey) {
+        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
+        if (signingKey.isBlank()) {
+            // 키가 없으면 노드마다 다른 키가 만들어지므로 여러 노드에서는 반드시 설정해야 한다.
+            log.warn("security.token.jwt.signing-key is not set. using a random key.");
+            byte[] randomKey = new byte[32];
+            new SecureRandom().nextBytes(randomKey);
+            signingKey = Base64.getEncoder().encodeToString(randomKey);
+        }
+        converter.setSigningKey(signingKey);
+        return converter;
+    }
+
     @Bean
     @Override
     public AuthenticationManager authenticationManagerBean() throws Exception {
@@ -0,0 +1,59 @@
+package me.kirok.restapi.enrollments;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+/**
+ * 이벤트 참가 신청. event 를 연관관계 대신 id 로만 들고 있어서 저장할 때 이벤트 행을 읽거나 잠그지 않는다.
+ * 한 사용자는 이벤트마다 한 번만 신청할 수 있다. (event_id 로 시작하는 유니크 인덱스가 이벤트별 조회에도 쓰인다.)
+ */
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(of = "id")
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_enrollment_event_username",
+    columnNames = {"event_id", "username"}))
+public class Enrollment {
+
+    @Id
+    @GeneratedValue(generator = "enrollment_id_generator")
+    @GenericGenerator(
+        name = "enrollment_id_generator",
+        strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+        parameters = {
+            @Parameter(name = "sequence_name", value = "enrollment_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer",
+                value = "me.kirok.restapi.commons.LockFreePooledLoOptimizer")
+        })
+    private Integer id;
+
+    /**
+     * 신청마다 발급하는 UUID. 로그를 다시 적용할 때 중복 저장을 막는다.
+     */
+    @Column(nullable = false, unique = true, length = 36)
+    private String reference;
+
+    @Column(name = "event_id", nullable = false)
+    private Integer eventId;
+
+    private String username;
+
+    private LocalDateTime enrolledAt;
+}
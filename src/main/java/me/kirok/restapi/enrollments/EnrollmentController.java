@@ -0,0 +1,65 @@
+package me.kirok.restapi.enrollments;
+
+import java.security.Principal;
+import me.kirok.restapi.commons.LinkFactory;
+import me.kirok.restapi.enrollments.EnrollmentEngine.EnrollmentResult;
+import me.kirok.restapi.events.EventController;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+@Controller
+@RequestMapping(value = "/api/events/{eventId}/enrollments", produces = MediaTypes.HAL_JSON_VALUE)
+public class EnrollmentController {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final EnrollmentEngine enrollmentEngine;
+
+    private final LinkFactory linkFactory;
+
+    public EnrollmentController(EnrollmentEngine enrollmentEngine, LinkFactory linkFactory) {
+        this.enrollmentEngine = enrollmentEngine;
+        this.linkFactory = linkFactory;
+    }
+
+    /**
+     * 신청은 사용자별로 구분하므로 인증된 요청만 받는다.
+     */
+    @PostMapping
+    public ResponseEntity enroll(@PathVariable Integer eventId, Principal principal) {
+        if (principal == null || principal.getName() == null || principal.getName().isBlank()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        EnrollmentResult result = this.enrollmentEngine.enroll(eventId, principal.getName());
+
+        switch (result.getStatus()) {
+            case NOT_FOUND:
+                return ResponseEntity.notFound().build();
+            case FULL:
+            case CLOSED:
+            case DUPLICATE:
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(toModel(result));
+            case UNAVAILABLE:
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(toModel(result));
+            default:
+                return ResponseEntity.status(HttpStatus.CREATED).body(toModel(result));
+        }
+    }
+
+    private EntityModel<EnrollmentResult> toModel(EnrollmentResult result) {
+        return EntityModel.of(
+            result,
+            this.linkFactory.item(EventController.class, result.getEventId(), "event"),
+            this.linkFactory.profile("resources-enrollments-create")
+        );
+    }
+}
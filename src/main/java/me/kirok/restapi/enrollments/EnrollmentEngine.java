@@ -0,0 +1,407 @@
+package me.kirok.restapi.enrollments;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import me.kirok.restapi.commons.DataSourceRouting;
+import me.kirok.restapi.enrollments.EnrollmentLog.Entry;
+import me.kirok.restapi.events.Event;
+import me.kirok.restapi.events.EventRepository;
+import me.kirok.restapi.events.EventStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * 이벤트 참가 신청을 처리한다.
+ *
+ * <p>정원은 이벤트별 메모리 카운터(EnrollmentSlot)에서 CAS 로 차감하므로 요청이 이벤트 행 잠금에
+ * 줄 서지 않는다. 자리를 얻은 신청은 EnrollmentLog 에 fsync 된 뒤에야 수락을 응답하고,
+ * 데이터베이스에는 백그라운드에서 묶어서(enrollments.flush-batch-size) 저장한다.
+ * 시작할 때 로그에 남아 있는 신청 중 데이터베이스에 없는 것을 다시 저장한다.
+ * 공개되지 않았거나 모집 기간이 아닌 이벤트의 신청은 받지 않고(CLOSED),
+ * 같은 사용자가 같은 이벤트에 다시 신청하면 받지 않는다(DUPLICATE).
+ *
+ * <p>카운터가 프로세스 메모리에 있으므로 애플리케이션 인스턴스가 하나일 때만 정원이 보장된다.
+ */
+@Slf4j
+@Component
+public class EnrollmentEngine {
+
+    public enum Status {
+        ACCEPTED, FULL, CLOSED, DUPLICATE, NOT_FOUND, UNAVAILABLE
+    }
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final EventRepository eventRepository;
+
+    /**
+     * 이벤트별 카운터. 처음 신청이 몰려도 한 스레드만 데이터베이스에서 읽고 나머지는 future 를 기다린다.
+     */
+    private final Map<Integer, CompletableFuture<EnrollmentSlot>> slots =
+        new ConcurrentHashMap<>();
+
+    private final Queue<Enrollment> pending = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final Map<Status, Counter> results = new EnumMap<>(Status.class);
+
+    private final String logPath;
+
+    private final long flushIntervalMillis;
+
+    private final int flushBatchSize;
+
+    private final long logTimeoutMillis;
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+        r -> {
+            Thread thread = new Thread(r, "enrollment-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private EnrollmentLog enrollmentLog;
+
+    public EnrollmentEngine(EnrollmentRepository enrollmentRepository,
+        EventRepository eventRepository, MeterRegistry meterRegistry,
+        @Value("${enrollments.log-path:}") String logPath,
+        @Value("${enrollments.flush-interval-ms:200}") long flushIntervalMillis,
+        @Value("${enrollments.flush-batch-size:1000}") int flushBatchSize,
+        @Value("${enrollments.log-timeout-ms:1000}") long logTimeoutMillis) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.eventRepository = eventRepository;
+        this.logPath = logPath;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.flushBatchSize = flushBatchSize;
+        this.logTimeoutMillis = logTimeoutMillis;
+
+        for (Status status : Status.values()) {
+            this.results.put(status, meterRegistry.counter("events.enrollments",
+                "result", status.name().toLowerCase()));
+        }
+        meterRegistry.gauge("events.enrollments.pending", this.pendingCount);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Path path;
+        if (this.logPath.isBlank()) {
+            path = Files.createTempDirectory("enrollments").resolve("enrollments.log");
+        } else {
+            path = Paths.get(this.logPath);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+        }
+        recover(path);
+        this.enrollmentLog = new EnrollmentLog(path, this::onDurable);
+
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly,
+            this.flushIntervalMillis, this.flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        this.flusher.shutdownNow();
+        // 종료 직전에 기록된 신청은 로그에 남아 다음 시작 때 복구된다.
+        flushQuietly();
+        this.enrollmentLog.close();
+    }
+
+    /**
+     * 모집 중이고 정원이 남아 있으면 자리를 차지하고 로그에 기록한다.
+     * 로그 기록이 확실히 실패했을 때만 자리를 되돌린다. 시간 초과처럼 결과를 알 수 없으면
+     * 자리를 돌려주지 않으므로 정원보다 적게 받을 수는 있어도 넘게 받지는 않는다.
+     */
+    public EnrollmentResult enroll(Integer eventId, String username) {
+        Assert.hasText(username, "username must not be empty");
+        EnrollmentSlot slot = slotOf(eventId);
+        if (slot == null) {
+            return result(eventId, Status.NOT_FOUND, null, 0);
+        }
+        if (!slot.isOpen(LocalDateTime.now())) {
+            return result(eventId, Status.CLOSED, null, slot.remaining());
+        }
+        if (!slot.register(username)) {
+            return result(eventId, Status.DUPLICATE, null, slot.remaining());
+        }
+        if (!slot.tryAcquire()) {
+            slot.unregister(username);
+            return result(eventId, Status.FULL, null, 0);
+        }
+
+        UUID reference = UUID.randomUUID();
+        Entry entry = new Entry(reference, eventId, System.currentTimeMillis(), username);
+        try {
+            this.enrollmentLog.append(entry).get(this.logTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            slot.release();
+            slot.unregister(username);
+            return result(eventId, Status.UNAVAILABLE, null, slot.remaining());
+        } catch (TimeoutException e) {
+            return result(eventId, Status.UNAVAILABLE, null, slot.remaining());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return result(eventId, Status.UNAVAILABLE, null, slot.remaining());
+        }
+        return result(eventId, Status.ACCEPTED, reference.toString(), slot.remaining());
+    }
+
+    /**
+     * 이벤트가 수정된 뒤에 호출한다. 정원, 상태, 모집 기간을 반영하며 이미 받은 신청은 취소하지 않는다.
+     * 이미 반영한 것보다 version 이 오래되었으면 무시한다.
+     */
+    public void update(Event event) {
+        withSlot(event.getId(), slot -> slot.update(event));
+    }
+
+    /**
+     * EventRepository#transitionStatus 로 ids 의 상태를 바꾼 뒤에 같은 조건으로 카운터에도 반영한다.
+     */
+    public void transitionStatus(Collection<Integer> ids, EventStatus from, EventStatus to,
+        LocalDateTime now) {
+        for (Integer id : ids) {
+            withSlot(id, slot -> slot.transition(from, to, now));
+        }
+    }
+
+    /**
+     * EventRepository#transitionOverdueStatus 뒤에 호출한다.
+     */
+    public void transitionOverdueStatus(EventStatus from, EventStatus to, LocalDateTime now) {
+        this.slots.keySet().forEach(id -> withSlot(id, slot -> slot.transition(from, to, now)));
+    }
+
+    /**
+     * 카운터가 있으면 action 을 적용한다. 아직 읽는 중이면 읽기가 끝난 뒤에 적용해서,
+     * 수정 전의 이벤트를 읽은 카운터에도 수정이 반영되게 한다.
+     */
+    private void withSlot(Integer eventId, Consumer<EnrollmentSlot> action) {
+        CompletableFuture<EnrollmentSlot> future = this.slots.get(eventId);
+        if (future != null) {
+            future.thenAccept(slot -> {
+                if (slot != null) {
+                    action.accept(slot);
+                }
+            });
+        }
+    }
+
+    /**
+     * 로그 세그먼트를 바꾸고, 그 전까지 기록된 신청을 데이터베이스에 저장한 뒤 닫힌 세그먼트를 지운다.
+     * 세그먼트를 바꾼 뒤에 들어온 신청은 새 세그먼트에 남아 다음 flush 에서 저장된다.
+     */
+    public synchronized void flush() throws IOException {
+        // 쓰기와 같은 잠금 안에서 세므로 이 수만큼이 닫힌 세그먼트에 있는 미저장 신청이다.
+        int sealed = this.enrollmentLog.rotate(this.pendingCount::get);
+        List<Enrollment> batch = new ArrayList<>(this.flushBatchSize);
+        for (int i = 0; i < sealed; i++) {
+            Enrollment enrollment = this.pending.poll();
+            if (enrollment == null) {
+                break;
+            }
+            batch.add(enrollment);
+            if (batch.size() == this.flushBatchSize) {
+                save(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            save(batch);
+        }
+        this.enrollmentLog.deleteSealed();
+    }
+
+    private void save(List<Enrollment> batch) {
+        try {
+            this.enrollmentRepository.saveAll(batch);
+        } catch (RuntimeException e) {
+            // 다음 주기에 다시 시도한다. 로그는 비우지 않으므로 재시작해도 잃지 않는다.
+            batch.forEach(enrollment -> enrollment.setId(null));
+            this.pending.addAll(batch);
+            throw e;
+        }
+        this.pendingCount.addAndGet(-batch.size());
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            log.warn("failed to flush enrollments. pending={}", this.pendingCount.get(), e);
+        }
+    }
+
+    private void onDurable(List<Entry> entries) {
+        for (Entry entry : entries) {
+            this.pending.add(toEnrollment(entry));
+        }
+        this.pendingCount.addAndGet(entries.size());
+    }
+
+    /**
+     * 처음 신청이 들어온 이벤트는 future 를 먼저 등록한 스레드 하나만 카운터를 읽고,
+     * 동시에 들어온 나머지 요청은 그 결과를 기다린다.
+     */
+    private EnrollmentSlot slotOf(Integer eventId) {
+        CompletableFuture<EnrollmentSlot> future = this.slots.get(eventId);
+        if (future == null) {
+            CompletableFuture<EnrollmentSlot> loading = new CompletableFuture<>();
+            future = this.slots.putIfAbsent(eventId, loading);
+            if (future == null) {
+                return load(eventId, loading);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException
+                ? (RuntimeException) e.getCause()
+                : e;
+        }
+    }
+
+    /**
+     * 데이터베이스에서 이벤트와 저장된 신청(수, 사용자)을 읽어 카운터를 만든다.
+     * 그 전에는 이 이벤트의 신청이 로그에 없으므로 데이터베이스의 수가 정확하다.
+     * replica 에서 읽으면 신청 수가 적게 보여 정원을 넘을 수 있으므로 primary 에서 읽는다.
+     * 없는 이벤트이거나 실패하면 등록을 지워서 다음 요청이 다시 읽게 한다.
+     */
+    private EnrollmentSlot load(Integer eventId, CompletableFuture<EnrollmentSlot> loading) {
+        try {
+            Event event = DataSourceRouting.callOnPrimary(() -> this.eventRepository
+                .findById(eventId)
+                .orElse(null));
+            if (event == null) {
+                this.slots.remove(eventId, loading);
+                loading.complete(null);
+                return null;
+            }
+            int taken = (int) (long) DataSourceRouting.callOnPrimary(
+                () -> this.enrollmentRepository.countByEventId(eventId));
+            List<String> usernames = DataSourceRouting.callOnPrimary(
+                () -> this.enrollmentRepository.findUsernamesByEventId(eventId));
+            EnrollmentSlot slot = new EnrollmentSlot(event, taken, usernames);
+            loading.complete(slot);
+            return slot;
+        } catch (RuntimeException e) {
+            this.slots.remove(eventId, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 이전 실행에서 로그에만 남은 신청을 저장하고 세그먼트를 지운다.
+     * 실패하면 신청을 잃지 않도록 시작을 중단한다.
+     */
+    private void recover(Path path) throws IOException {
+        List<Path> segments = EnrollmentLog.segments(path);
+        List<Entry> entries = new ArrayList<>();
+        for (Path segment : segments) {
+            entries.addAll(EnrollmentLog.read(segment));
+        }
+        if (entries.isEmpty()) {
+            deleteAll(segments);
+            return;
+        }
+        int recovered = 0;
+        for (int from = 0; from < entries.size(); from += this.flushBatchSize) {
+            List<Entry> chunk = entries.subList(from,
+                Math.min(from + this.flushBatchSize, entries.size()));
+            List<String> references = new ArrayList<>(chunk.size());
+            chunk.forEach(entry -> references.add(entry.getReference().toString()));
+            Set<String> existing = new HashSet<>(DataSourceRouting.callOnPrimary(
+                () -> this.enrollmentRepository.findExistingReferences(references)));
+
+            List<Enrollment> missing = new ArrayList<>();
+            for (Entry entry : chunk) {
+                if (!existing.contains(entry.getReference().toString())) {
+                    missing.add(toEnrollment(entry));
+                }
+            }
+            this.enrollmentRepository.saveAll(missing);
+            recovered += missing.size();
+        }
+        log.info("recovered enrollments from {}. logged={}, recovered={}", path,
+            entries.size(), recovered);
+        deleteAll(segments);
+    }
+
+    private static void deleteAll(List<Path> segments) throws IOException {
+        for (Path segment : segments) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    /**
+     * 모집 기간 판단(LocalDateTime.now())과 같은 시스템 시간대로 신청 시각을 저장한다.
+     */
+    private Enrollment toEnrollment(Entry entry) {
+        return Enrollment.builder()
+            .reference(entry.getReference().toString())
+            .eventId(entry.getEventId())
+            .username(entry.getUsername())
+            .enrolledAt(LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(entry.getEnrolledAtMillis()), ZoneId.systemDefault()))
+            .build();
+    }
+
+    private EnrollmentResult result(Integer eventId, Status status, String reference,
+        int remaining) {
+        this.results.get(status).increment();
+        return new EnrollmentResult(eventId, status, reference, remaining);
+    }
+
+    @Getter
+    public static class EnrollmentResult {
+
+        private final Integer eventId;
+
+        private final Status status;
+
+        private final String reference;
+
+        private final int remaining;
+
+        EnrollmentResult(Integer eventId, Status status, String reference, int remaining) {
+            this.eventId = eventId;
+            this.status = status;
+            this.reference = reference;
+            this.remaining = remaining;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package me.kirok.restapi.enrollments;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 참가 신청을 데이터베이스에 반영하기 전에 남기는 append-only 로그.
+ *
+ * <p>여러 요청의 기록을 쓰기 스레드 하나가 모아서 한 번에 쓰고 fsync 한다(group commit).
+ * 레코드는 [길이][내용][CRC32] 형식이며, 읽을 때 잘리거나 CRC 가 맞지 않는 꼬리는 버린다.
+ * 쓰기에 한 번 실패하면 이후 append 는 모두 실패한다.
+ *
+ * <p>로그는 base 경로 뒤에 번호를 붙인 세그먼트 파일들(enrollments.log.1, .2, ...)로 나뉜다.
+ * {@link #rotate} 로 쓰던 세그먼트를 닫고 새 세그먼트에 쓰며, 닫힌 세그먼트의 레코드가 모두
+ * 반영되면 {@link #deleteSealed} 로 지운다. 부하가 계속 들어와도 로그가 끝없이 커지지 않는다.
+ */
+@Slf4j
+class EnrollmentLog implements AutoCloseable {
+
+    private static final int MAX_BATCH = 1024;
+
+    private static final long POLL_MILLIS = 100;
+
+    private final Path base;
+
+    private final List<Path> sealed = new ArrayList<>();
+
+    private long index;
+
+    private FileChannel channel;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    private final Consumer<List<Entry>> onDurable;
+
+    private final Thread writer;
+
+    private volatile IOException failure;
+
+    private volatile boolean closed;
+
+    /**
+     * @param onDurable fsync 가 끝난 레코드를 쓰기 스레드에서 넘겨받는다.
+     */
+    EnrollmentLog(Path base, Consumer<List<Entry>> onDurable) throws IOException {
+        this.base = base;
+        List<Path> existing = segments(base);
+        this.index = existing.isEmpty() ? 1 : index(existing.get(existing.size() - 1), base) + 1;
+        this.channel = open(segment(this.index));
+        this.onDurable = onDurable;
+        this.writer = new Thread(this::drain, "enrollment-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * 레코드를 쓰기 대기열에 넣는다. 반환된 future 는 fsync 가 끝나면 완료된다.
+     */
+    CompletableFuture<Void> append(Entry entry) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        IOException failure = this.failure;
+        if (failure != null || this.closed) {
+            future.completeExceptionally(failure != null
+                ? failure : new IOException("enrollment log is closed"));
+            return future;
+        }
+        this.queue.add(new Pending(entry, future));
+        return future;
+    }
+
+    /**
+     * 쓰던 세그먼트를 닫고 새 세그먼트로 바꾼다. 비어 있으면 바꾸지 않는다.
+     * snapshot 은 같은 잠금 안에서 호출된다. 쓰기와 onDurable 전달도 이 잠금 안에서 일어나므로
+     * snapshot 시점까지 onDurable 로 넘긴 레코드는 모두 닫힌 세그먼트에 있다.
+     */
+    synchronized <T> T rotate(Supplier<T> snapshot) throws IOException {
+        T value = snapshot.get();
+        if (this.channel.size() > 0) {
+            FileChannel next = open(segment(this.index + 1));
+            this.channel.close();
+            this.sealed.add(segment(this.index));
+            this.index++;
+            this.channel = next;
+        }
+        return value;
+    }
+
+    /**
+     * 닫힌 세그먼트를 모두 지운다. 그 레코드가 모두 데이터베이스에 반영된 뒤에 호출한다.
+     */
+    void deleteSealed() throws IOException {
+        List<Path> sealed;
+        synchronized (this) {
+            sealed = new ArrayList<>(this.sealed);
+            this.sealed.clear();
+        }
+        for (Path segment : sealed) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // FileChannel 은 쓰는 도중 인터럽트되면 닫히므로 interrupt 대신 closed 로 멈춘다.
+        this.closed = true;
+        try {
+            this.writer.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failPending(new IOException("enrollment log is closed"));
+        synchronized (this) {
+            boolean empty = this.channel.size() == 0;
+            this.channel.close();
+            if (empty) {
+                Files.deleteIfExists(segment(this.index));
+            }
+        }
+    }
+
+    /**
+     * base 의 세그먼트들을 번호 순서로 돌려준다. 세그먼트로 나누기 전의 base 파일이 있으면 맨 앞에 둔다.
+     */
+    static List<Path> segments(Path base) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (Files.exists(base)) {
+            segments.add(base);
+        }
+        Path directory = base.toAbsolutePath().getParent();
+        List<Path> numbered;
+        try (Stream<Path> files = Files.list(directory)) {
+            numbered = files.filter(file -> index(file, base) > 0)
+                .sorted(Comparator.comparingLong(file -> index(file, base)))
+                .collect(Collectors.toList());
+        }
+        segments.addAll(numbered);
+        return segments;
+    }
+
+    private Path segment(long index) {
+        return this.base.resolveSibling(this.base.getFileName() + "." + index);
+    }
+
+    /**
+     * @return 세그먼트 번호. base 의 세그먼트가 아니면 0
+     */
+    private static long index(Path file, Path base) {
+        String prefix = base.getFileName() + ".";
+        String name = file.getFileName().toString();
+        if (!name.startsWith(prefix) || name.length() == prefix.length()) {
+            return 0;
+        }
+        String suffix = name.substring(prefix.length());
+        for (int i = 0; i < suffix.length(); i++) {
+            if (!Character.isDigit(suffix.charAt(i))) {
+                return 0;
+            }
+        }
+        return Long.parseLong(suffix);
+    }
+
+    private static FileChannel open(Path segment) throws IOException {
+        return FileChannel.open(segment, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        while (!this.closed) {
+            Pending first;
+            try {
+                first = this.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            this.queue.drainTo(batch, MAX_BATCH - 1);
+            try {
+                writeAndHandOff(batch);
+            } catch (IOException e) {
+                log.error("failed to write enrollment log {}", this.base, e);
+                this.failure = e;
+                batch.forEach(p -> p.future.completeExceptionally(e));
+                failPending(e);
+                return;
+            }
+            batch.forEach(p -> p.future.complete(null));
+            batch.clear();
+        }
+    }
+
+    private synchronized void writeAndHandOff(List<Pending> batch) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(batch.stream()
+            .mapToInt(p -> p.entry.encodedLength() + Integer.BYTES + Long.BYTES).sum());
+        for (Pending pending : batch) {
+            int start = buffer.position();
+            buffer.putInt(0);
+            pending.entry.encode(buffer);
+            int length = buffer.position() - start - Integer.BYTES;
+            buffer.putInt(start, length);
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), start + Integer.BYTES, length);
+            buffer.putLong(crc.getValue());
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+        this.channel.force(false);
+
+        List<Entry> entries = new ArrayList<>(batch.size());
+        batch.forEach(p -> entries.add(p.entry));
+        this.onDurable.accept(entries);
+    }
+
+    private void failPending(IOException e) {
+        Pending pending;
+        while ((pending = this.queue.poll()) != null) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 세그먼트 하나에 남은 레코드를 순서대로 읽는다. 마지막 쓰기 도중 종료되어 잘린 꼬리는 무시한다.
+     */
+    static List<Entry> read(Path path) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        while (buffer.remaining() >= Integer.BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length <= 0 || buffer.remaining() < length + Long.BYTES) {
+                log.warn("ignoring torn enrollment log tail at {} in {}", start, path);
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), buffer.position(), length);
+            ByteBuffer record = buffer.slice();
+            record.limit(length);
+            buffer.position(buffer.position() + length);
+            if (crc.getValue() != buffer.getLong()) {
+                log.warn("ignoring corrupt enrollment log tail at {} in {}", start, path);
+                break;
+            }
+            entries.add(Entry.decode(record));
+        }
+        return entries;
+    }
+
+    @Getter
+    static class Entry {
+
+        private final UUID reference;
+
+        private final int eventId;
+
+        private final long enrolledAtMillis;
+
+        private final String username;
+
+        Entry(UUID reference, int eventId, long enrolledAtMillis, String username) {
+            this.reference = reference;
+            this.eventId = eventId;
+            this.enrolledAtMillis = enrolledAtMillis;
+            this.username = username;
+        }
+
+        private int encodedLength() {
+            int usernameLength = this.username == null
+                ? 0 : this.username.getBytes(StandardCharsets.UTF_8).length;
+            return Long.BYTES * 3 + Integer.BYTES * 2 + usernameLength;
+        }
+
+        private void encode(ByteBuffer buffer) {
+            buffer.putLong(this.reference.getMostSignificantBits());
+            buffer.putLong(this.reference.getLeastSignificantBits());
+            buffer.putInt(this.eventId);
+            buffer.putLong(this.enrolledAtMillis);
+            if (this.username == null) {
+                buffer.putInt(-1);
+            } else {
+                byte[] bytes = this.username.getBytes(StandardCharsets.UTF_8);
+                buffer.putInt(bytes.length);
+                buffer.put(bytes);
+            }
+        }
+
+        private static Entry decode(ByteBuffer buffer) {
+            UUID reference = new UUID(buffer.getLong(), buffer.getLong());
+            int eventId = buffer.getInt();
+            long enrolledAtMillis = buffer.getLong();
+            int usernameLength = buffer.getInt();
+            String username = null;
+            if (usernameLength >= 0) {
+                byte[] bytes = new byte[usernameLength];
+                buffer.get(bytes);
+                username = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return new Entry(reference, eventId, enrolledAtMillis, username);
+        }
+    }
+
+    private static class Pending {
+
+        private final Entry entry;
+
+        private final CompletableFuture<Void> future;
+
+        private Pending(Entry entry, CompletableFuture<Void> future) {
+            this.entry = entry;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package me.kirok.restapi.enrollments;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Integer> {
+
+    long countByEventId(Integer eventId);
+
+    @Query("select e.username from Enrollment e "
+        + "where e.eventId = :eventId and e.username is not null")
+    List<String> findUsernamesByEventId(@Param("eventId") Integer eventId);
+
+    @Query("select e.reference from Enrollment e where e.reference in :references")
+    List<String> findExistingReferences(@Param("references") Collection<String> references);
+}
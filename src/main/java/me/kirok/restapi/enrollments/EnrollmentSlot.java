@@ -0,0 +1,131 @@
+package me.kirok.restapi.enrollments;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.kirok.restapi.events.Event;
+import me.kirok.restapi.events.EventStatus;
+
+/**
+ * 이벤트 하나의 정원 카운터. CAS 로만 증가시켜서 잠금 없이 정원을 넘지 않게 한다.
+ * 신청을 받을 수 있는지 판단하도록 이벤트의 상태와 모집 기간, 신청한 사용자도 함께 보관한다.
+ * 수정은 반영한 것보다 오래된 version 이면 무시한다.
+ */
+class EnrollmentSlot {
+
+    private volatile int limit;
+
+    private volatile Window window;
+
+    private long version;
+
+    private final AtomicInteger taken;
+
+    private final Set<String> usernames = ConcurrentHashMap.newKeySet();
+
+    EnrollmentSlot(Event event, int taken, Collection<String> usernames) {
+        this.limit = event.getLimitOfEnrollment();
+        this.window = new Window(event.getEventStatus(), event.getBeginEnrollmentDateTime(),
+            event.getCloseEnrollmentDateTime());
+        this.version = versionOf(event.getVersion());
+        this.taken = new AtomicInteger(taken);
+        this.usernames.addAll(usernames);
+    }
+
+    /**
+     * @return 이 이벤트에 처음 신청하는 사용자라면 true
+     */
+    boolean register(String username) {
+        return this.usernames.add(username);
+    }
+
+    /**
+     * 신청이 받아들여지지 않았을 때 다시 신청할 수 있도록 되돌린다.
+     */
+    void unregister(String username) {
+        this.usernames.remove(username);
+    }
+
+    /**
+     * 공개된 이벤트의 모집 기간(begin 이상, close 미만) 안이면 신청을 받는다.
+     * 기간이 비어 있으면 그쪽으로는 제한하지 않는다.
+     * 모집 시작 시각이 지났다면 스케줄러가 상태를 바꾸기 전이어도 PUBLISHED 에서 받는다.
+     */
+    boolean isOpen(LocalDateTime now) {
+        Window window = this.window;
+        if (window.status != EventStatus.PUBLISHED
+            && window.status != EventStatus.BEGAN_ENROLLMENT) {
+            return false;
+        }
+        return (window.begin == null || !now.isBefore(window.begin))
+            && (window.close == null || now.isBefore(window.close));
+    }
+
+    /**
+     * @return 자리를 하나 차지했다면 true, 정원이 찼다면 false
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = this.taken.get();
+            if (current >= this.limit) {
+                return false;
+            }
+            if (this.taken.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 차지한 자리를 기록하지 못했을 때 되돌린다.
+     */
+    void release() {
+        this.taken.decrementAndGet();
+    }
+
+    synchronized void update(Event event) {
+        long newVersion = versionOf(event.getVersion());
+        if (newVersion < this.version) {
+            return;
+        }
+        this.version = newVersion;
+        this.limit = event.getLimitOfEnrollment();
+        this.window = new Window(event.getEventStatus(), event.getBeginEnrollmentDateTime(),
+            event.getCloseEnrollmentDateTime());
+    }
+
+    /**
+     * 데이터베이스의 벌크 상태 전이와 같은 조건(상태가 from 이고 모집 시작 시각이 지남)으로 상태를 바꾼다.
+     * 벌크 전이처럼 version 도 하나 올린다.
+     */
+    synchronized void transition(EventStatus from, EventStatus to, LocalDateTime now) {
+        Window window = this.window;
+        if (window.status == from && window.begin != null && !window.begin.isAfter(now)) {
+            this.window = new Window(to, window.begin, window.close);
+            this.version++;
+        }
+    }
+
+    int remaining() {
+        return Math.max(0, this.limit - this.taken.get());
+    }
+
+    private static long versionOf(Long version) {
+        return version == null ? -1 : version;
+    }
+
+    private static final class Window {
+
+        private final EventStatus status;
+        private final LocalDateTime begin;
+        private final LocalDateTime close;
+
+        private Window(EventStatus status, LocalDateTime begin, LocalDateTime close) {
+            this.status = status;
+            this.begin = begin;
+            this.close = close;
+        }
+    }
+}
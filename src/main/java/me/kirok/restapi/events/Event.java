@@ -1,13 +1,18 @@
 package me.kirok.restapi.events;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -15,6 +20,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import me.kirok.restapi.accounts.Account;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 @Builder
 @NoArgsConstructor
@@ -23,10 +30,32 @@ import me.kirok.restapi.accounts.Account;
 @Setter
 @EqualsAndHashCode(of = "id")
 @Entity
+@Table(indexes = {
+    // 검색 조건마다 선두 컬럼으로 사용할 수 있는 인덱스 (EventRepositoryCustom#search)
+    @Index(name = "idx_event_status_begin_event",
+        columnList = "event_status, begin_event_date_time"),
+    @Index(name = "idx_event_begin_enrollment", columnList = "begin_enrollment_date_time"),
+    @Index(name = "idx_event_close_enrollment", columnList = "close_enrollment_date_time"),
+    @Index(name = "idx_event_begin_event", columnList = "begin_event_date_time"),
+    @Index(name = "idx_event_end_event", columnList = "end_event_date_time"),
+    @Index(name = "idx_event_free_begin_event", columnList = "free, begin_event_date_time"),
+    @Index(name = "idx_event_offline_begin_event", columnList = "offline, begin_event_date_time"),
+    @Index(name = "idx_event_base_price", columnList = "base_price"),
+    @Index(name = "idx_event_manager", columnList = "manager_id")
+})
 public class Event {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "event_id_generator")
+    @GenericGenerator(
+        name = "event_id_generator",
+        strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+        parameters = {
+            @Parameter(name = "sequence_name", value = "event_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer",
+                value = "me.kirok.restapi.commons.LockFreePooledLoOptimizer")
+        })
     private Integer id;
     private String name;
     private String description;
@@ -44,7 +73,12 @@ public class Event {
     @Enumerated(EnumType.STRING)
     private EventStatus eventStatus = EventStatus.DRAFT;
 
-    @ManyToOne
+    @Version
+    @JsonIgnore
+    private Long version; // ETag 로 노출한다.
+
+    // 응답과 내보내기는 manager 의 id 만 쓰므로 Account 와 roles 는 필요할 때만 읽는다.
+    @ManyToOne(fetch = FetchType.LAZY)
     private Account manager;
 
     public void update() {
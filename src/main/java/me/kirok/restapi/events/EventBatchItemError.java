@@ -0,0 +1,16 @@
+package me.kirok.restapi.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.validation.Errors;
+
+/**
+ * 일괄 생성 요청에서 index 번째 항목의 검증 오류.
+ */
+@Getter
+@AllArgsConstructor
+public class EventBatchItemError {
+
+    private final int index;
+    private final Errors errors;
+}
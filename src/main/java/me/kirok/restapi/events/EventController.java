@@ -3,82 +3,428 @@ package me.kirok.restapi.events;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import me.kirok.restapi.commons.DataSourceRouting;
+import me.kirok.restapi.commons.ETags;
+import me.kirok.restapi.commons.HalJsonWriter;
+import me.kirok.restapi.commons.IdempotencyStore;
+import me.kirok.restapi.commons.LinkFactory;
+import me.kirok.restapi.enrollments.EnrollmentEngine;
+import me.kirok.restapi.events.EventResponseCache.CachedResponse;
 import me.kirok.restapi.index.IndexController;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
+import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @Controller
 @RequestMapping(value = "/api/events", produces = MediaTypes.HAL_JSON_VALUE)
 public class EventController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_TEXT_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_TEXT_SEARCH_OFFSET = 10_000;
+    private static final int MAX_WINDOW_SIZE = 1000;
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final EventRepository eventRepository;
-    private final ModelMapper modelMapper;
+    private final EventMapper eventMapper;
     private final EventValidator eventValidator;
-
-    public EventController(EventRepository eventRepository, ModelMapper modelMapper,
-        EventValidator eventValidator) {
+    private final EventCountCache eventCountCache;
+    private final EventResponseCache eventResponseCache;
+    private final HalJsonWriter halJsonWriter;
+    private final LinkFactory linkFactory;
+    private final EventExporter eventExporter;
+    private final EventImporter eventImporter;
+    private final EventTextIndex eventTextIndex;
+    private final EventIntervalIndex eventIntervalIndex;
+    private final EventStatusScheduler eventStatusScheduler;
+    private final EnrollmentEngine enrollmentEngine;
+    private final IdempotencyStore idempotencyStore;
+    private final SpringValidatorAdapter beanValidator;
+
+    public EventController(EventRepository eventRepository, EventMapper eventMapper,
+        EventValidator eventValidator, EventCountCache eventCountCache,
+        EventResponseCache eventResponseCache, HalJsonWriter halJsonWriter,
+        LinkFactory linkFactory, EventExporter eventExporter, EventImporter eventImporter,
+        EventTextIndex eventTextIndex, EventIntervalIndex eventIntervalIndex,
+        EventStatusScheduler eventStatusScheduler, EnrollmentEngine enrollmentEngine,
+        IdempotencyStore idempotencyStore, Validator validator) {
         this.eventRepository = eventRepository;
-        this.modelMapper = modelMapper;
+        this.eventMapper = eventMapper;
         this.eventValidator = eventValidator;
+        this.eventCountCache = eventCountCache;
+        this.eventResponseCache = eventResponseCache;
+        this.halJsonWriter = halJsonWriter;
+        this.linkFactory = linkFactory;
+        this.eventExporter = eventExporter;
+        this.eventImporter = eventImporter;
+        this.eventTextIndex = eventTextIndex;
+        this.eventIntervalIndex = eventIntervalIndex;
+        this.eventStatusScheduler = eventStatusScheduler;
+        this.enrollmentEngine = enrollmentEngine;
+        this.idempotencyStore = idempotencyStore;
+        this.beanValidator = new SpringValidatorAdapter(validator);
     }
 
     @GetMapping
-    public ResponseEntity<PagedModel<EntityModel<Event>>> queryEvents(Pageable pageable,
-        PagedResourcesAssembler<Event> assembler) {
+    public ResponseEntity<PagedModel<EntityModel<EventSummary>>> queryEvents(Pageable pageable,
+        PagedResourcesAssembler<EventSummary> assembler) {
 
-        Page<Event> page = this.eventRepository.findAll(pageable);
+        Page<EventSummary> page = this.eventRepository.findAllSummaries(pageable);
         var pagedModel = assembler.toModel(page,
             e -> EntityModel.of(
                 e,
-                linkTo(EventController.class).slash(e.getId()).withSelfRel()
+                this.linkFactory.self(EventController.class, e.getId())
             )
         );
 
-        pagedModel
-            .add(Link.of("http://localhost:8080/docs/index.html#resources-events-list", "profile"));
+        pagedModel.add(this.linkFactory.profile("resources-events-list"));
 
         return ResponseEntity.ok(pagedModel);
 
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<PagedModel<EntityModel<EventSummary>>> searchEvents(
+        EventSearchCondition condition, Pageable pageable,
+        PagedResourcesAssembler<EventSummary> assembler) {
+
+        Page<EventSummary> page = this.eventRepository.search(condition, pageable);
+        var pagedModel = assembler.toModel(page,
+            e -> EntityModel.of(
+                e,
+                this.linkFactory.self(EventController.class, e.getId())
+            )
+        );
+
+        pagedModel.add(this.linkFactory.profile("resources-events-search"));
+
+        return ResponseEntity.ok(pagedModel);
+    }
+
+    /**
+     * name, description 전문 검색. 관련도 순으로 정렬된다.
+     * 색인은 앞에서부터 offset + size 개를 모아야 하므로 offset 은 MAX_TEXT_SEARCH_OFFSET 까지만 허용한다.
+     */
+    @GetMapping(value = "/search", params = "q")
+    public ResponseEntity searchEventsByText(
+        @RequestParam String q,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "20") int size) {
+
+        int limit = Math.max(1, Math.min(size, MAX_TEXT_SEARCH_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        // int 곱셈이 넘치지 않도록 long 으로 비교한다.
+        if ((long) pageNumber * limit > MAX_TEXT_SEARCH_OFFSET) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "eventTextSearch");
+            errors.reject("pageTooDeep",
+                "page * size must not exceed " + MAX_TEXT_SEARCH_OFFSET);
+            return badRequestResponse(errors);
+        }
+        int offset = pageNumber * limit;
+        EventTextIndex.Hits hits = this.eventTextIndex.search(q, offset, limit);
+
+        // 색인 순서(관련도)를 유지한다.
+        Map<Integer, EventSummary> summaries = hits.getIds().isEmpty()
+            ? Map.of()
+            : this.eventRepository.findSummariesByIdIn(hits.getIds()).stream()
+                .collect(Collectors.toMap(EventSummary::getId, Function.identity()));
+        List<EntityModel<EventSummary>> content = hits.getIds().stream()
+            .map(summaries::get)
+            .filter(Objects::nonNull)
+            .map(e -> EntityModel.of(
+                e,
+                this.linkFactory.self(EventController.class, e.getId())
+            ))
+            .collect(Collectors.toList());
+
+        UriComponentsBuilder searchUri = UriComponentsBuilder
+            .fromUriString(this.linkFactory.base(EventController.class) + "/search")
+            .queryParam("q", q)
+            .queryParam("size", limit);
+
+        CollectionModel<EntityModel<EventSummary>> collectionModel = CollectionModel.of(content);
+        collectionModel.add(Link.of(
+            searchUri.cloneBuilder().queryParam("page", pageNumber).encode().toUriString(),
+            IanaLinkRelations.SELF));
+        if (hits.hasMore() && offset + limit <= MAX_TEXT_SEARCH_OFFSET) {
+            collectionModel.add(Link.of(
+                searchUri.cloneBuilder().queryParam("page", pageNumber + 1).encode().toUriString(),
+                IanaLinkRelations.NEXT));
+        }
+        collectionModel.add(this.linkFactory.profile("resources-events-text-search"));
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    /**
+     * 모집 기간(period=enrollment) 또는 진행 기간(period=event)이 [from, to] 와 겹치는 이벤트.
+     * to 가 없으면 from 시점에 모집/진행 중인 이벤트를 조회한다. 데이터베이스를 조회하지 않는다.
+     */
+    @GetMapping("/window")
+    public ResponseEntity queryEventsByWindow(
+        @RequestParam(defaultValue = "enrollment") String period,
+        @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(defaultValue = "100") int size) {
+
+        Errors errors = new MapBindingResult(new HashMap<>(), "eventWindow");
+        EventIntervalIndex.Period parsedPeriod = null;
+        try {
+            parsedPeriod = EventIntervalIndex.Period.parse(period);
+        } catch (IllegalArgumentException e) {
+            errors.reject("invalidPeriod", "period must be enrollment or event");
+        }
+        LocalDateTime until = to == null ? from : to;
+        if (until.isBefore(from)) {
+            errors.reject("invalidWindow", "to must not be before from");
+        }
+        if (errors.hasErrors()) {
+            return badRequestResponse(errors);
+        }
+
+        int limit = Math.max(1, Math.min(size, MAX_WINDOW_SIZE));
+        List<EntityModel<EventIntervalIndex.EventWindow>> content = this.eventIntervalIndex
+            .query(parsedPeriod, from, until, limit).stream()
+            .map(w -> EntityModel.of(
+                w,
+                this.linkFactory.self(EventController.class, w.getId())
+            ))
+            .collect(Collectors.toList());
+
+        UriComponentsBuilder selfUri = UriComponentsBuilder
+            .fromUriString(this.linkFactory.base(EventController.class) + "/window")
+            .queryParam("period", parsedPeriod.name().toLowerCase(Locale.ROOT))
+            .queryParam("from", from)
+            .queryParam("size", limit);
+        if (to != null) {
+            selfUri.queryParam("to", to);
+        }
+
+        CollectionModel<EntityModel<EventIntervalIndex.EventWindow>> collectionModel =
+            CollectionModel.of(content);
+        collectionModel.add(Link.of(selfUri.toUriString(), IanaLinkRelations.SELF));
+        collectionModel.add(this.linkFactory.profile("resources-events-window"));
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    @GetMapping("/slice")
+    public ResponseEntity<EventSliceModel> queryEventsSlice(Pageable pageable) {
+
+        Slice<Event> slice = this.eventRepository.findAllBy(pageable);
+        List<EntityModel<Event>> content = slice.getContent().stream()
+            .map(e -> EntityModel.of(
+                e,
+                this.linkFactory.self(EventController.class, e.getId())
+            ))
+            .collect(Collectors.toList());
+
+        EventSliceModel sliceModel = new EventSliceModel(content,
+            new EventSliceModel.SliceMetadata(
+                slice.getSize(),
+                slice.getNumber(),
+                slice.hasNext(),
+                this.eventCountCache.getApproximateCount(),
+                true
+            ));
+
+        sliceModel.add(sliceLink(pageable, pageable.getPageNumber(), IanaLinkRelations.SELF));
+        if (slice.hasPrevious()) {
+            sliceModel
+                .add(sliceLink(pageable, pageable.getPageNumber() - 1, IanaLinkRelations.PREV));
+        }
+        if (slice.hasNext()) {
+            sliceModel
+                .add(sliceLink(pageable, pageable.getPageNumber() + 1, IanaLinkRelations.NEXT));
+        }
+        sliceModel.add(this.linkFactory.profile("resources-events-slice"));
+
+        return ResponseEntity.ok(sliceModel);
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity queryEventsByCursor(
+        @RequestParam(required = false) String after,
+        @RequestParam(defaultValue = "20") int size,
+        Sort sort) {
+
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        EventCursor cursor;
+        try {
+            cursor = after == null ? EventCursor.first(sort) : EventCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "eventCursor");
+            errors.reject("invalidCursor", e.getMessage());
+            return badRequestResponse(errors);
+        }
+
+        // 한 건을 더 읽어서 다음 페이지가 있는지 판단한다. (COUNT 쿼리 없음)
+        List<Event> events = this.eventRepository.findByCursor(cursor, limit + 1);
+        boolean hasNext = events.size() > limit;
+        if (hasNext) {
+            events = events.subList(0, limit);
+        }
+
+        List<EntityModel<Event>> content = events.stream()
+            .map(e -> EntityModel.of(
+                e,
+                this.linkFactory.self(EventController.class, e.getId())
+            ))
+            .collect(Collectors.toList());
+
+        UriComponentsBuilder cursorUri = UriComponentsBuilder
+            .fromUriString(this.linkFactory.base(EventController.class) + "/cursor")
+            .queryParam("size", limit);
+
+        CollectionModel<EntityModel<Event>> collectionModel = CollectionModel.of(content);
+        UriComponentsBuilder selfUri = cursorUri.cloneBuilder();
+        if (after != null) {
+            selfUri.queryParam("after", after);
+        }
+        collectionModel.add(Link.of(selfUri.toUriString(), IanaLinkRelations.SELF));
+        if (hasNext) {
+            String nextCursor = cursor.next(events.get(events.size() - 1)).encode();
+            collectionModel.add(Link.of(
+                cursorUri.cloneBuilder().queryParam("after", nextCursor).toUriString(),
+                IanaLinkRelations.NEXT));
+        }
+        collectionModel.add(this.linkFactory.profile("resources-events-cursor"));
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEvents() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(this.eventExporter::export);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<EntityModel<Event>> getEvent(@PathVariable Integer id) {
-        Optional<Event> optionalEvent = this.eventRepository.findById(id);
-        if (optionalEvent.isEmpty()) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<byte[]> getEvent(@PathVariable Integer id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+        throws JsonProcessingException {
+        String baseUri = this.linkFactory.base(EventController.class);
+        CachedResponse cached = this.eventResponseCache.get(id, baseUri);
+        if (cached != null && ETags.matchesIfNoneMatch(ifNoneMatch, cached.getETag())) {
+            return notModifiedResponse(cached.getETag());
         }
-        Event event = optionalEvent.get();
-        EntityModel<Event> eventModel = EntityModel.of(
-            event,
-            linkTo(EventController.class).slash(event.getId()).withSelfRel(),
-            Link.of("http://localhost:8080/docs/index.html#resources-events-get", "profile")
-        );
 
-        return ResponseEntity.ok(eventModel);
+        byte[] body;
+        String eTag;
+        if (cached != null) {
+            body = cached.getBody();
+            eTag = cached.getETag();
+        } else {
+            long stamp = this.eventResponseCache.stamp();
+            // 캐싱할 값이므로 replica 가 아니라 primary 에서 읽는다. 지연된 replica 의 옛 행을 캐싱하면
+            // 다음 수정 전까지 옛 본문과 ETag 를 계속 내려보내게 된다. (캐시 미스에서만 읽는다)
+            Optional<Event> optionalEvent = DataSourceRouting.callOnPrimary(
+                () -> this.eventRepository.findById(id));
+            if (optionalEvent.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            Event event = optionalEvent.get();
+            eTag = ETags.of(event.getVersion());
+            // 변경되지 않았다면 본문을 직렬화하지 않는다.
+            if (ETags.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+                return notModifiedResponse(eTag);
+            }
+            EntityModel<Event> eventModel = EntityModel.of(
+                event,
+                this.linkFactory.self(EventController.class, event.getId()),
+                this.linkFactory.profile("resources-events-get")
+            );
+            body = this.halJsonWriter.write(eventModel);
+            this.eventResponseCache.put(id, baseUri, eTag, body, stamp);
+        }
+
+        // 캐싱된 바이트를 Jackson 을 거치지 않고 그대로 내려보낸다.
+        return ResponseEntity.ok()
+            .contentType(MediaTypes.HAL_JSON)
+            .eTag(eTag)
+            .body(body);
     }
 
+    /**
+     * Idempotency-Key 헤더가 있으면 같은 키로 다시 온 요청에 처음 만든 응답을 돌려준다.
+     * (타임아웃 후 재시도하는 클라이언트가 이벤트를 두 번 만들지 않도록) 인증된 요청에서만 사용할 수 있다.
+     */
     @PostMapping
-    public ResponseEntity createEvent(@RequestBody @Valid EventDto eventDto, Errors errors) {
+    public ResponseEntity createEvent(@RequestBody @Valid EventDto eventDto, Errors errors,
+        @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+        Principal principal) throws Exception {
+        if (idempotencyKey == null) {
+            return doCreateEvent(eventDto, errors);
+        }
+        if (!IdempotencyStore.isValidKey(idempotencyKey)) {
+            errors.reject("wrongIdempotencyKey", "Idempotency-Key must be 1 to 255 characters");
+            return badRequestResponse(errors);
+        }
+        // 키는 사용자별로 보관한다. 익명 요청끼리 키를 공유하면 다른 클라이언트의 응답을 받게 된다.
+        if (principal == null || principal.getName() == null || principal.getName().isEmpty()) {
+            errors.reject("anonymousIdempotencyKey",
+                "Idempotency-Key requires an authenticated request");
+            return badRequestResponse(errors);
+        }
+
+        byte[] request = this.halJsonWriter.write(eventDto);
+        return this.idempotencyStore.execute(principal.getName(), idempotencyKey, request,
+            () -> toBytes(doCreateEvent(eventDto, errors)));
+    }
+
+    private ResponseEntity doCreateEvent(EventDto eventDto, Errors errors) {
         if (errors.hasErrors()) {
             return badRequestResponse(errors);
         }
@@ -88,36 +434,124 @@ public class EventController {
             return badRequestResponse(errors);
         }
 
-        Event event = modelMapper.map(eventDto, Event.class);
+        Event event = eventMapper.toEvent(eventDto);
         event.update();
         eventRepository.save(event);
+        this.eventCountCache.invalidate();
+        this.eventTextIndex.index(event);
+        this.eventIntervalIndex.put(event);
+        this.eventStatusScheduler.schedule(event);
 
-        WebMvcLinkBuilder selfLinkBuilder = linkTo(EventController.class).slash(event.getId());
-        URI createdUri = selfLinkBuilder.toUri();
+        Link selfLink = this.linkFactory.self(EventController.class, event.getId());
+        URI createdUri = URI.create(selfLink.getHref());
 
         EntityModel<Event> eventResource =
             EntityModel.of(
                 event,
-                linkTo(EventController.class).withRel("query-events"),
-                selfLinkBuilder.withSelfRel(),
-                selfLinkBuilder.withRel("update-event"),
-                Link.of("http://localhost:8080/docs/index.html", "profile")
+                this.linkFactory.collection(EventController.class, "query-events"),
+                selfLink,
+                selfLink.withRel("update-event"),
+                this.linkFactory.profile("resources-events-create")
             );
 
         System.out.println("eventResource = " + eventResource);
 
-        return ResponseEntity.created(createdUri).body(eventResource);
+        return ResponseEntity.created(createdUri)
+            .eTag(ETags.of(event.getVersion()))
+            .body(eventResource);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity createEvents(@RequestBody List<EventDto> eventDtos) {
+        if (eventDtos.isEmpty() || eventDtos.size() > MAX_BATCH_SIZE) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "eventDtos");
+            errors.reject("wrongBatchSize", "batch size must be between 1 and " + MAX_BATCH_SIZE);
+            return badRequestResponse(errors);
+        }
+
+        // 하나라도 잘못된 항목이 있으면 아무것도 저장하지 않고 항목별 오류를 반환한다.
+        List<EventBatchItemError> itemErrors = new ArrayList<>();
+        for (int i = 0; i < eventDtos.size(); i++) {
+            EventDto eventDto = eventDtos.get(i);
+            Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+            if (eventDto == null) {
+                errors.reject("nullItem", "event must not be null");
+            } else {
+                this.beanValidator.validate(eventDto, errors);
+                if (!errors.hasErrors()) {
+                    this.eventValidator.validate(eventDto, errors);
+                }
+            }
+            if (errors.hasErrors()) {
+                itemErrors.add(new EventBatchItemError(i, errors));
+            }
+        }
+        if (!itemErrors.isEmpty()) {
+            return batchBadRequestResponse(itemErrors);
+        }
+
+        List<Event> events = eventDtos.stream()
+            .map(eventDto -> {
+                Event event = this.eventMapper.toEvent(eventDto);
+                event.update();
+                return event;
+            })
+            .collect(Collectors.toList());
+        this.eventRepository.saveAllInBatches(events);
+        this.eventCountCache.invalidate();
+        this.eventTextIndex.indexAll(events);
+        this.eventIntervalIndex.putAll(events);
+        this.eventStatusScheduler.scheduleAll(events);
+
+        List<EntityModel<Event>> content = events.stream()
+            .map(e -> EntityModel.of(
+                e,
+                this.linkFactory.self(EventController.class, e.getId())
+            ))
+            .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<Event>> collectionModel = CollectionModel.of(
+            content,
+            this.linkFactory.collection(EventController.class, "query-events"),
+            this.linkFactory.profile("resources-events-batch")
+        );
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(collectionModel);
+    }
+
+    @PostMapping(value = "/import",
+        consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE},
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importEvents(HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        EventImporter.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+            ? EventImporter.Format.NDJSON
+            : EventImporter.Format.CSV;
+
+        // 진행 상황을 chunk 마다 내보내기 위해 응답을 직접 쓴다.
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        this.eventImporter.importEvents(request.getInputStream(), format,
+            response.getOutputStream());
     }
 
     @PutMapping("/{id}")
     public ResponseEntity updateEvent(@PathVariable Integer id,
-        @RequestBody @Valid EventDto eventDto, Errors errors) {
+        @RequestBody @Valid EventDto eventDto, Errors errors,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         Optional<Event> optionalEvent = this.eventRepository.findById(id);
         if (optionalEvent.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
+        if (ifMatch != null
+            && !ETags.matchesIfMatch(ifMatch, ETags.of(optionalEvent.get().getVersion()))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
         if (errors.hasErrors()) {
             return badRequestResponse(errors);
         }
@@ -128,20 +562,75 @@ public class EventController {
         }
 
         Event event = optionalEvent.get();
-        this.modelMapper.map(eventDto, event);
-        Event savedEvent = this.eventRepository.save(event);
+        this.eventMapper.copy(eventDto, event);
+        Event savedEvent;
+        try {
+            // 조회 이후 다른 요청이 먼저 수정했다면 @Version 검사에서 실패한다.
+            savedEvent = this.eventRepository.save(event);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        this.eventCountCache.invalidate();
+        this.eventResponseCache.invalidate(savedEvent.getId());
+        this.eventTextIndex.index(savedEvent);
+        this.eventIntervalIndex.put(savedEvent);
+        this.eventStatusScheduler.schedule(savedEvent);
+        this.enrollmentEngine.update(savedEvent);
 
         EntityModel<Event> eventModel = EntityModel.of(
             savedEvent,
-            linkTo(EventController.class).slash(event.getId()).withSelfRel(),
-            Link.of("http://localhost:8080/docs/index.html#resources-events-update", "profile")
+            this.linkFactory.self(EventController.class, event.getId()),
+            this.linkFactory.profile("resources-events-update")
 
         );
 
-        return ResponseEntity.ok(eventModel);
+        return ResponseEntity.ok()
+            .eTag(ETags.of(savedEvent.getVersion()))
+            .body(eventModel);
+
+    }
+
 
+    private ResponseEntity<byte[]> notModifiedResponse(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(eTag)
+            .build();
     }
 
+    private Link sliceLink(Pageable pageable, int page, LinkRelation rel) {
+        UriComponentsBuilder builder = UriComponentsBuilder
+            .fromUriString(this.linkFactory.base(EventController.class) + "/slice")
+            .queryParam("page", page)
+            .queryParam("size", pageable.getPageSize());
+        pageable.getSort().forEach(order ->
+            builder.queryParam("sort", order.getProperty() + "," + order.getDirection()));
+        return Link.of(builder.toUriString(), rel);
+    }
+
+    private ResponseEntity<EntityModel<HashMap<String, List<EventBatchItemError>>>> batchBadRequestResponse(
+        List<EventBatchItemError> itemErrors) {
+        HashMap<String, List<EventBatchItemError>> errorsHashMap = new HashMap<>();
+        errorsHashMap.put("errors", itemErrors);
+
+        EntityModel<HashMap<String, List<EventBatchItemError>>> response =
+            EntityModel.of(
+                errorsHashMap,
+                linkTo(methodOn(IndexController.class).index()).withRel("index")
+            );
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * 응답을 보관할 수 있도록 본문을 바이트로 직렬화한다.
+     */
+    private ResponseEntity<byte[]> toBytes(ResponseEntity<?> response)
+        throws JsonProcessingException {
+        return ResponseEntity.status(response.getStatusCode())
+            .headers(response.getHeaders())
+            .contentType(MediaTypes.HAL_JSON)
+            .body(this.halJsonWriter.write(response.getBody()));
+    }
 
     private ResponseEntity<EntityModel<HashMap<String, Errors>>> badRequestResponse(
         Errors errors) {
@@ -0,0 +1,85 @@
+package me.kirok.restapi.events;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 이벤트 전체 개수를 캐싱한다.
+ * 목록 조회마다 COUNT(*) 를 실행하지 않도록 백그라운드 스레드에서 주기적으로 갱신하고,
+ * 이벤트가 생성/수정되면 무효화 후 다시 갱신한다. 따라서 반환값은 근사치다.
+ */
+@Component
+public class EventCountCache {
+
+    private final EventRepository eventRepository;
+
+    private final long refreshIntervalMillis;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+        r -> {
+            Thread thread = new Thread(r, "event-count-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+
+    private volatile long count = -1;
+
+    public EventCountCache(EventRepository eventRepository,
+        @Value("${events.count-cache.refresh-interval-ms:30000}") long refreshIntervalMillis) {
+        this.eventRepository = eventRepository;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.executor.scheduleWithFixedDelay(this::requestRefresh,
+            this.refreshIntervalMillis, this.refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * 캐싱된 개수를 반환한다. 아직 한 번도 세지 않았다면 요청 스레드에서 한 번 센다.
+     */
+    public long getApproximateCount() {
+        long current = this.count;
+        if (current < 0) {
+            refresh();
+            current = this.count;
+        }
+        return current;
+    }
+
+    /**
+     * 캐시를 무효화하고 백그라운드 갱신을 요청한다. 여러 번 호출되어도 갱신은 한 번만 예약된다.
+     */
+    public void invalidate() {
+        if (this.refreshPending.compareAndSet(false, true)) {
+            this.executor.execute(this::requestRefresh);
+        }
+    }
+
+    private void requestRefresh() {
+        this.refreshPending.set(false);
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // 갱신에 실패하면 이전 값을 유지하고 다음 주기에 다시 시도한다.
+        }
+    }
+
+    private void refresh() {
+        this.count = this.eventRepository.count();
+    }
+}
@@ -0,0 +1,161 @@
+package me.kirok.restapi.events;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+/**
+ * keyset 페이지네이션에서 사용하는 커서.
+ * 정렬 키의 마지막 값과 Event.id를 담아서 다음 페이지를 "이 위치 이후"로 조회한다.
+ * 클라이언트에게는 base64url 로 인코딩된 불투명 토큰으로만 노출된다.
+ */
+@Getter
+public class EventCursor {
+
+    /**
+     * keyset 정렬이 가능한 속성과 그 타입. 페이지마다 인덱스 범위 조회가 되도록 인덱스가 있는 컬럼만 허용한다.
+     */
+    static final Map<String, Class<?>> SORTABLE_PROPERTIES = Map.of(
+        "id", Integer.class,
+        "beginEnrollmentDateTime", LocalDateTime.class,
+        "closeEnrollmentDateTime", LocalDateTime.class,
+        "beginEventDateTime", LocalDateTime.class,
+        "endEventDateTime", LocalDateTime.class,
+        "basePrice", Integer.class
+    );
+
+    /**
+     * null 이 들어갈 수 있는 정렬 속성. null 은 정렬 방향과 상관없이 모든 값의 뒤에 둔다.
+     * 값이 있는 행을 먼저 읽고, 다 읽으면 null 인 행을 id 순서로 읽는다. (마지막 값이 null 인 커서)
+     */
+    static final Set<String> NULLABLE_PROPERTIES = Set.of(
+        "beginEnrollmentDateTime",
+        "closeEnrollmentDateTime",
+        "beginEventDateTime",
+        "endEventDateTime"
+    );
+
+    private static final String SEPARATOR = "\n";
+
+    // 값이 있으면 접두어를 붙이고, 없으면 NULL_VALUE 를 쓴다. ("null" 이라는 이름과 구분한다.)
+    private static final String VALUE_PREFIX = "=";
+    private static final String NULL_VALUE = "-";
+
+    private final String property;
+    private final Direction direction;
+    private final Object lastValue;
+    private final Integer lastId;
+
+    private EventCursor(String property, Direction direction, Object lastValue, Integer lastId) {
+        this.property = property;
+        this.direction = direction;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    /**
+     * 첫 페이지용 커서. 정렬이 없으면 id 오름차순을 사용한다.
+     * 정렬 속성은 하나만 받으며 (동점은 항상 id 로 정렬한다) 둘 이상이면 거절한다.
+     */
+    public static EventCursor first(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() > 1) {
+            throw new IllegalArgumentException("only one sort property is supported: " + sort);
+        }
+        Sort.Order order = orders.isEmpty() ? Sort.Order.asc("id") : orders.get(0);
+        if (!SORTABLE_PROPERTIES.containsKey(order.getProperty())) {
+            throw new IllegalArgumentException("unsupported sort property: " + order.getProperty());
+        }
+        return new EventCursor(order.getProperty(), order.getDirection(), null, null);
+    }
+
+    /**
+     * 이번 페이지의 마지막 이벤트 다음을 가리키는 커서.
+     */
+    public EventCursor next(Event last) {
+        Object value = "id".equals(this.property) ? last.getId() : readProperty(last);
+        return new EventCursor(this.property, this.direction, value, last.getId());
+    }
+
+    public boolean isFirst() {
+        return this.lastId == null;
+    }
+
+    public boolean isNullable() {
+        return NULLABLE_PROPERTIES.contains(this.property);
+    }
+
+    /**
+     * 값이 있는 행을 모두 읽고 null 인 행을 읽는 중인지.
+     */
+    public boolean isInNulls() {
+        return !isFirst() && this.lastValue == null;
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR,
+            this.property, this.direction.name(), String.valueOf(this.lastId),
+            this.lastValue == null ? NULL_VALUE : VALUE_PREFIX + this.lastValue);
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // 값은 구분자를 포함할 수 있으므로 마지막에 둔다.
+            String[] parts = raw.split(SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("malformed cursor");
+            }
+            String property = parts[0];
+            Class<?> type = SORTABLE_PROPERTIES.get(property);
+            if (type == null) {
+                throw new IllegalArgumentException("unsupported sort property: " + property);
+            }
+            Object value;
+            if (parts[3].startsWith(VALUE_PREFIX)) {
+                value = parseValue(type, parts[3].substring(VALUE_PREFIX.length()));
+            } else if (parts[3].equals(NULL_VALUE) && NULLABLE_PROPERTIES.contains(property)) {
+                value = null;
+            } else {
+                throw new IllegalArgumentException("malformed cursor");
+            }
+            return new EventCursor(property, Direction.fromString(parts[1]), value,
+                Integer.valueOf(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid cursor: " + token, e);
+        }
+    }
+
+    private Object readProperty(Event event) {
+        switch (this.property) {
+            case "beginEnrollmentDateTime":
+                return event.getBeginEnrollmentDateTime();
+            case "closeEnrollmentDateTime":
+                return event.getCloseEnrollmentDateTime();
+            case "beginEventDateTime":
+                return event.getBeginEventDateTime();
+            case "endEventDateTime":
+                return event.getEndEventDateTime();
+            case "basePrice":
+                return event.getBasePrice();
+            default:
+                throw new IllegalStateException("unsupported sort property: " + this.property);
+        }
+    }
+
+    private static Object parseValue(Class<?> type, String value) {
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        return Integer.valueOf(value);
+    }
+}
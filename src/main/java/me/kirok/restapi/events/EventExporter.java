@@ -0,0 +1,79 @@
+package me.kirok.restapi.events;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 모든 이벤트를 NDJSON(한 줄에 JSON 하나)으로 내보낸다.
+ * 읽기 전용 트랜잭션 안에서 JDBC 커서로 한 행씩 읽고, 일정 건수마다 영속성 컨텍스트를 비워서
+ * 테이블 크기와 상관없이 사용하는 힙이 일정하도록 한다.
+ */
+@Component
+public class EventExporter {
+
+    static final int CLEAR_INTERVAL = 500;
+
+    private final EventRepository eventRepository;
+
+    private final ObjectWriter eventWriter;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public EventExporter(EventRepository eventRepository, ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.objectMapper = objectMapper;
+        // 줄마다 flush 하지 않고 응답 버퍼가 찰 때만 내보낸다.
+        this.eventWriter = objectMapper.writerFor(Event.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void export(OutputStream out) throws IOException {
+        try {
+            this.readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Event> events = this.eventRepository.streamAll();
+                    JsonGenerator generator = this.objectMapper.getFactory()
+                        .createGenerator(out, JsonEncoding.UTF8)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.setRootValueSeparator(null);
+                    write(events.iterator(), generator);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void write(Iterator<Event> events, JsonGenerator generator) throws IOException {
+        int count = 0;
+        while (events.hasNext()) {
+            this.eventWriter.writeValue(generator, events.next());
+            generator.writeRaw('\n');
+            if (++count % CLEAR_INTERVAL == 0) {
+                this.entityManager.clear();
+            }
+        }
+    }
+}
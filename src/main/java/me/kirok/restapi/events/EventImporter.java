@@ -0,0 +1,294 @@
+package me.kirok.restapi.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import javax.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+/**
+ * NDJSON 또는 CSV 로 들어오는 이벤트를 스트리밍으로 가져온다.
+ *
+ * <p>요청 본문을 한 줄씩 읽어서 chunk 단위로 모으고, chunk 를 병렬로 검증한 뒤
+ * chunk 하나를 하나의 트랜잭션에서 배치 INSERT 한다. 다음 chunk 는 이전 chunk 가 저장된 뒤에 읽기
+ * 때문에 데이터베이스가 처리하는 속도만큼만 본문을 읽고(backpressure), 메모리에는 chunk 하나만 남는다.
+ *
+ * <p>결과는 NDJSON 으로 쓴다. 잘못된 행마다 error 줄을, chunk 마다 progress 줄을,
+ * 마지막에 done 줄을 쓴다. 행 번호(index)는 헤더를 제외하고 빈 줄을 포함해서 1부터 센다.
+ * chunk 를 저장하지 못하면 그때까지의 진행 상황을 담은 error 줄을 마지막으로 쓰고 멈춘다.
+ * (이전 chunk 는 이미 저장되어 있다.)
+ */
+@Slf4j
+@Component
+public class EventImporter {
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    private final EventRepository eventRepository;
+    private final EventMapper eventMapper;
+    private final EventValidator eventValidator;
+    private final EventCountCache eventCountCache;
+    private final EventTextIndex eventTextIndex;
+    private final EventIntervalIndex eventIntervalIndex;
+    private final EventStatusScheduler eventStatusScheduler;
+    private final SpringValidatorAdapter beanValidator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader eventDtoReader;
+    private final int chunkSize;
+    private final int parallelism;
+    private final ExecutorService validationExecutor;
+
+    public EventImporter(EventRepository eventRepository, EventMapper eventMapper,
+        EventValidator eventValidator, EventCountCache eventCountCache,
+        EventTextIndex eventTextIndex, EventIntervalIndex eventIntervalIndex,
+        EventStatusScheduler eventStatusScheduler, Validator validator, ObjectMapper objectMapper,
+        @Value("${events.import.chunk-size:1000}") int chunkSize) {
+        this.eventRepository = eventRepository;
+        this.eventMapper = eventMapper;
+        this.eventValidator = eventValidator;
+        this.eventCountCache = eventCountCache;
+        this.eventTextIndex = eventTextIndex;
+        this.eventIntervalIndex = eventIntervalIndex;
+        this.eventStatusScheduler = eventStatusScheduler;
+        this.beanValidator = new SpringValidatorAdapter(validator);
+        this.objectMapper = objectMapper;
+        this.eventDtoReader = objectMapper.readerFor(EventDto.class);
+        this.chunkSize = chunkSize;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.validationExecutor = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread thread = new Thread(r, "event-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.validationExecutor.shutdownNow();
+    }
+
+    public void importEvents(InputStream in, Format format, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(in, StandardCharsets.UTF_8));
+        JsonGenerator generator = this.objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        String[] header = null;
+        if (format == Format.CSV) {
+            String headerLine = reader.readLine();
+            header = headerLine == null ? new String[0] : parseCsvLine(headerLine);
+        }
+
+        Progress progress = new Progress();
+        List<Row> chunk = new ArrayList<>(this.chunkSize);
+        long lineNumber = 0;
+        boolean saved = true;
+        String line;
+        while (saved && (line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            progress.read++;
+            chunk.add(new Row(lineNumber, line));
+            if (chunk.size() == this.chunkSize) {
+                saved = processChunk(chunk, format, header, progress, generator);
+                chunk.clear();
+            }
+        }
+        if (saved && !chunk.isEmpty()) {
+            saved = processChunk(chunk, format, header, progress, generator);
+        }
+        if (progress.imported > 0) {
+            this.eventCountCache.invalidate();
+        }
+
+        if (saved) {
+            writeLine(generator, progress.toMap("done"));
+        }
+        generator.close();
+    }
+
+    /**
+     * @return chunk 를 저장했다면 true. 저장하지 못했다면 error 줄을 쓰고 false
+     */
+    private boolean processChunk(List<Row> chunk, Format format, String[] header,
+        Progress progress, JsonGenerator generator) throws IOException {
+        int partitionSize = Math.max(1, (chunk.size() + this.parallelism - 1) / this.parallelism);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int from = 0; from < chunk.size(); from += partitionSize) {
+            List<Row> partition = chunk.subList(from, Math.min(from + partitionSize, chunk.size()));
+            futures.add(CompletableFuture.runAsync(
+                () -> partition.forEach(row -> validate(row, format, header)),
+                this.validationExecutor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        List<Event> events = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (row.errors.hasErrors()) {
+                progress.failed++;
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("type", "error");
+                error.put("index", row.index);
+                error.put("errors", row.errors);
+                writeLine(generator, error);
+            } else {
+                Event event = this.eventMapper.toEvent(row.eventDto);
+                event.update();
+                events.add(event);
+            }
+        }
+
+        if (!events.isEmpty()) {
+            try {
+                this.eventRepository.saveAllInBatches(events);
+            } catch (RuntimeException e) {
+                log.warn("failed to save imported events. read={}, imported={}",
+                    progress.read, progress.imported, e);
+                progress.failed += events.size();
+                Map<String, Object> error = progress.toMap("error");
+                error.put("message", "failed to save events: " + e.getMessage());
+                writeLine(generator, error);
+                generator.flush();
+                return false;
+            }
+            this.eventTextIndex.indexAll(events);
+            this.eventIntervalIndex.putAll(events);
+            this.eventStatusScheduler.scheduleAll(events);
+            progress.imported += events.size();
+        }
+        writeLine(generator, progress.toMap("progress"));
+        generator.flush();
+        return true;
+    }
+
+    private void validate(Row row, Format format, String[] header) {
+        try {
+            row.eventDto = format == Format.CSV
+                ? this.objectMapper.convertValue(toMap(header, parseCsvLine(row.line)),
+                EventDto.class)
+                : this.eventDtoReader.readValue(row.line);
+        } catch (IOException | IllegalArgumentException e) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "eventDto");
+            errors.reject("unreadable", e.getMessage());
+            row.errors = errors;
+            return;
+        }
+
+        Errors errors = new BeanPropertyBindingResult(row.eventDto, "eventDto");
+        this.beanValidator.validate(row.eventDto, errors);
+        if (!errors.hasErrors()) {
+            this.eventValidator.validate(row.eventDto, errors);
+        }
+        row.errors = errors;
+    }
+
+    private void writeLine(JsonGenerator generator, Object value) throws IOException {
+        this.objectMapper.writeValue(generator, value);
+        generator.writeRaw('\n');
+    }
+
+    private static Map<String, String> toMap(String[] header, String[] values) {
+        if (values.length > header.length) {
+            throw new IllegalArgumentException(
+                "expected " + header.length + " columns but was " + values.length);
+        }
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            // 빈 칸은 값이 없는 것으로 본다. (location 등 선택 항목)
+            if (!values[i].isEmpty()) {
+                map.put(header[i], values[i]);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * 큰따옴표로 감싼 필드와 "" 이스케이프를 지원한다. 필드 안의 줄바꿈은 지원하지 않는다.
+     */
+    static String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.stream().map(String::trim).collect(Collectors.toList())
+            .toArray(new String[0]);
+    }
+
+    private static final class Row {
+
+        private final long index;
+        private final String line;
+        private EventDto eventDto;
+        private Errors errors;
+
+        private Row(long index, String line) {
+            this.index = index;
+            this.line = line;
+        }
+    }
+
+    private static final class Progress {
+
+        private long read;
+        private long imported;
+        private long failed;
+
+        private Map<String, Object> toMap(String type) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("type", type);
+            map.put("read", this.read);
+            map.put("imported", this.imported);
+            map.put("failed", this.failed);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package me.kirok.restapi.events;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import me.kirok.restapi.commons.DataSourceRouting;
+import me.kirok.restapi.commons.IntLongArrayMap;
+import me.kirok.restapi.commons.IntervalTree;
+import me.kirok.restapi.events.EventRepository.EventPeriods;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 이벤트의 모집 기간과 진행 기간을 메모리의 interval tree 로 유지한다.
+ * "지금 모집 중인 이벤트" 같은 구간 겹침 조회를 데이터베이스 없이 O(log n + k) 에 처리한다.
+ *
+ * <p>시각은 LocalDateTime 을 UTC 로 간주한 epoch second 로 저장한다.
+ * 시작할 때 데이터베이스에서 한 번 읽고, 이후에는 이벤트 생성/수정 때 갱신한다.
+ * 저장 후 갱신하는 순서는 저장 순서와 다를 수 있으므로, 이미 반영한 것보다 오래된 version 은 무시한다.
+ */
+@Slf4j
+@Component
+public class EventIntervalIndex {
+
+    public enum Period {
+        ENROLLMENT, EVENT;
+
+        public static Period parse(String value) {
+            return Period.valueOf(value.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final EventRepository eventRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final IntervalTree enrollments = new IntervalTree();
+
+    private final IntervalTree events = new IntervalTree();
+
+    private static final int ENROLLMENT_START = 0;
+    private static final int EVENT_START = 1;
+    private static final int VERSION = 2;
+
+    /**
+     * 수정할 때 이전 구간을 지우기 위해 이벤트별 시작 시각과 반영한 version 을 기억한다.
+     * (모집 시작, 진행 시작, version)
+     */
+    private final IntLongArrayMap starts = new IntLongArrayMap(3);
+
+    public EventIntervalIndex(EventRepository eventRepository,
+        PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * 요청을 받기 전에 전체 이벤트의 기간을 읽어둔다. replica 지연으로 빠지지 않도록 primary 에서 읽는다.
+     */
+    @PostConstruct
+    public void load() {
+        DataSourceRouting.runOnPrimary(() -> this.readOnlyTransaction.executeWithoutResult(
+            status -> {
+                try (Stream<EventPeriods> periods = this.eventRepository.streamPeriods()) {
+                    periods.forEach(p -> put(p.getId(), p.getVersion(),
+                        p.getBeginEnrollmentDateTime(), p.getCloseEnrollmentDateTime(),
+                        p.getBeginEventDateTime(), p.getEndEventDateTime()));
+                }
+            }));
+        log.info("event interval index loaded. events={}", this.starts.size());
+    }
+
+    /**
+     * 이벤트 저장 후에 호출한다. 이미 반영한 것보다 version 이 오래되었으면 무시한다.
+     */
+    public void put(Event event) {
+        put(event.getId(), event.getVersion(),
+            event.getBeginEnrollmentDateTime(), event.getCloseEnrollmentDateTime(),
+            event.getBeginEventDateTime(), event.getEndEventDateTime());
+    }
+
+    public void putAll(Collection<Event> events) {
+        events.forEach(this::put);
+    }
+
+    /**
+     * [from, to] 와 기간이 겹치는 이벤트를 시작 시각 순서로 최대 limit 개 반환한다.
+     */
+    public List<EventWindow> query(Period period, LocalDateTime from, LocalDateTime to,
+        int limit) {
+        List<EventWindow> windows = new ArrayList<>(Math.min(limit, 1024));
+        IntervalTree tree = period == Period.ENROLLMENT ? this.enrollments : this.events;
+        this.lock.readLock().lock();
+        try {
+            tree.query(toEpochSecond(from), toEpochSecond(to), (start, end, id) -> {
+                windows.add(new EventWindow(id, toDateTime(start), toDateTime(end)));
+                return windows.size() < limit;
+            });
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return windows;
+    }
+
+    private void put(Integer id, Long version, LocalDateTime beginEnrollment,
+        LocalDateTime closeEnrollment, LocalDateTime beginEvent, LocalDateTime endEvent) {
+        if (id == null) {
+            return;
+        }
+        long newVersion = version == null ? -1 : version;
+        this.lock.writeLock().lock();
+        try {
+            int previous = this.starts.indexOf(id);
+            if (previous >= 0) {
+                if (this.starts.get(previous, VERSION) > newVersion) {
+                    return;
+                }
+                this.enrollments.remove(this.starts.get(previous, ENROLLMENT_START), id);
+                this.events.remove(this.starts.get(previous, EVENT_START), id);
+            }
+
+            long enrollmentStart = Long.MIN_VALUE;
+            long eventStart = Long.MIN_VALUE;
+            if (isValid(beginEnrollment, closeEnrollment)) {
+                enrollmentStart = toEpochSecond(beginEnrollment);
+                this.enrollments.insert(enrollmentStart, toEpochSecond(closeEnrollment), id);
+            }
+            if (isValid(beginEvent, endEvent)) {
+                eventStart = toEpochSecond(beginEvent);
+                this.events.insert(eventStart, toEpochSecond(endEvent), id);
+            }
+            this.starts.put(id, enrollmentStart, eventStart, newVersion);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean isValid(LocalDateTime begin, LocalDateTime end) {
+        return begin != null && end != null && !end.isBefore(begin);
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * 이벤트 id 와 조회한 기간.
+     */
+    @Getter
+    public static final class EventWindow {
+
+        private final Integer id;
+        private final LocalDateTime begin;
+        private final LocalDateTime end;
+
+        EventWindow(Integer id, LocalDateTime begin, LocalDateTime end) {
+            this.id = id;
+            this.begin = begin;
+            this.end = end;
+        }
+    }
+}
@@ -1,7 +1,147 @@
 package me.kirok.restapi.events;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface EventRepository extends JpaRepository<Event, Integer>, EventRepositoryCustom {
+
+    /**
+     * COUNT 쿼리 없이 다음 페이지 존재 여부만 판단하는 목록 조회.
+     */
+    @Transactional(readOnly = true)
+    Slice<Event> findAllBy(Pageable pageable);
+
+    /**
+     * 목록 응답에 필요한 컬럼만 읽는 select 절. manager 는 외래 키만 사용하므로 account 를 조인하지 않는다.
+     */
+    String SUMMARY_SELECT = "select new me.kirok.restapi.events.EventSummary("
+        + "e.id, e.name, e.description, e.beginEnrollmentDateTime, e.closeEnrollmentDateTime, "
+        + "e.beginEventDateTime, e.endEventDateTime, e.location, e.basePrice, e.maxPrice, "
+        + "e.limitOfEnrollment, e.offline, e.free, e.eventStatus, e.manager.id) ";
+
+    /**
+     * 직접 선언한 조회 메서드는 SimpleJpaRepository 의 읽기 전용 트랜잭션을 물려받지 않으므로
+     * replica 로 보내려면 readOnly 를 명시해야 한다.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = SUMMARY_SELECT + "from Event e",
+        countQuery = "select count(e) from Event e")
+    Page<EventSummary> findAllSummaries(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(SUMMARY_SELECT + "from Event e where e.id in :ids")
+    List<EventSummary> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * 전체 이벤트를 JDBC 커서로 읽는다. 트랜잭션 안에서 사용하고 반드시 close 해야 한다.
+     * (MySQL 은 useCursorFetch=true 일 때 fetch size 만큼씩 가져온다.)
+     * manager 는 외래 키만 쓰므로 account 를 조인하지 않는다.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select e from Event e")
+    Stream<Event> streamAll();
+
+    /**
+     * 전체 이벤트의 (id, version) 을 JDBC 커서로 읽는다. 트랜잭션 안에서 사용하고 반드시 close 해야 한다.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select e.id as id, e.version as version from Event e")
+    Stream<EventVersion> streamVersions();
+
+    /**
+     * 전체 이벤트의 모집/진행 기간과 version 을 JDBC 커서로 읽는다. 트랜잭션 안에서 사용하고 반드시 close 해야 한다.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select e.id as id, e.version as version, "
+        + "e.beginEnrollmentDateTime as beginEnrollmentDateTime, "
+        + "e.closeEnrollmentDateTime as closeEnrollmentDateTime, "
+        + "e.beginEventDateTime as beginEventDateTime, "
+        + "e.endEventDateTime as endEventDateTime "
+        + "from Event e")
+    Stream<EventPeriods> streamPeriods();
+
+    /**
+     * 모집 시작 시각이 from 이후인 status 상태의 이벤트를 JDBC 커서로 읽는다.
+     * 트랜잭션 안에서 사용하고 반드시 close 해야 한다.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select e.id as id, e.beginEnrollmentDateTime as beginEnrollmentDateTime "
+        + "from Event e where e.eventStatus = :status and e.beginEnrollmentDateTime > :from")
+    Stream<EventTransition> streamUpcomingTransitions(@Param("status") EventStatus status,
+        @Param("from") LocalDateTime from);
+
+    /**
+     * ids 중 모집 시작 시각이 지난 from 상태의 이벤트를 한 번의 UPDATE 로 to 상태로 바꾼다.
+     * 벌크 UPDATE 는 @Version 을 올리지 않으므로 직접 올려서 ETag 와 낙관적 잠금이 동작하게 한다.
+     */
+    @Modifying
+    @Query("update Event e set e.eventStatus = :to, e.version = e.version + 1 "
+        + "where e.id in :ids and e.eventStatus = :from and e.beginEnrollmentDateTime <= :now")
+    int transitionStatus(@Param("ids") Collection<Integer> ids, @Param("from") EventStatus from,
+        @Param("to") EventStatus to, @Param("now") LocalDateTime now);
+
+    /**
+     * 모집 시작 시각이 지난 from 상태의 이벤트를 모두 to 상태로 바꾼다. 시작할 때 밀린 전이를 처리한다.
+     */
+    @Modifying
+    @Query("update Event e set e.eventStatus = :to, e.version = e.version + 1 "
+        + "where e.eventStatus = :from and e.beginEnrollmentDateTime <= :now")
+    int transitionOverdueStatus(@Param("from") EventStatus from, @Param("to") EventStatus to,
+        @Param("now") LocalDateTime now);
+
+    interface EventTransition {
+
+        Integer getId();
+
+        LocalDateTime getBeginEnrollmentDateTime();
+    }
+
+    interface EventVersion {
+
+        Integer getId();
+
+        Long getVersion();
+    }
+
+    interface EventPeriods {
+
+        Integer getId();
+
+        Long getVersion();
+
+        LocalDateTime getBeginEnrollmentDateTime();
+
+        LocalDateTime getCloseEnrollmentDateTime();
 
-public interface EventRepository extends JpaRepository<Event, Integer> {
+        LocalDateTime getBeginEventDateTime();
 
+        LocalDateTime getEndEventDateTime();
+    }
 }
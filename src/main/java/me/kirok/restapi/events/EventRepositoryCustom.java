@@ -0,0 +1,27 @@
+package me.kirok.restapi.events;
+
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface EventRepositoryCustom {
+
+    /**
+     * 커서 위치 이후의 이벤트를 (정렬 키, id) 순서로 최대 limit 개 조회한다.
+     * OFFSET 이나 COUNT 쿼리를 사용하지 않기 때문에 페이지 깊이와 상관없이 비용이 일정하다.
+     */
+    List<Event> findByCursor(EventCursor cursor, int limit);
+
+    /**
+     * 여러 이벤트를 하나의 트랜잭션에서 저장한다.
+     * hibernate.jdbc.batch_size 단위로 flush/clear 해서 INSERT 를 JDBC 배치로 묶고,
+     * 영속성 컨텍스트가 저장 건수만큼 커지지 않도록 한다.
+     */
+    List<Event> saveAllInBatches(List<Event> events);
+
+    /**
+     * 조건에 맞는 이벤트를 목록 조회용 읽기 모델로 조회한다.
+     * 각 조건의 컬럼에는 Event 에 선언된 인덱스가 있다.
+     */
+    Page<EventSummary> search(EventSearchCondition condition, Pageable pageable);
+}
@@ -0,0 +1,195 @@
+package me.kirok.restapi.events;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    /**
+     * null 이 들어갈 수 있는 속성은 두 단계로 읽는다. 값이 있는 행을 (key, id) 범위로 읽고,
+     * 페이지가 덜 찼으면 null 인 행을 id 범위로 이어서 읽는다. 두 쿼리 모두 인덱스 범위 조회다.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Event> findByCursor(EventCursor cursor, int limit) {
+        List<Event> events = new ArrayList<>(limit);
+        if (!cursor.isInNulls()) {
+            events.addAll(findValues(cursor, limit));
+        }
+        if (cursor.isNullable() && events.size() < limit) {
+            events.addAll(findNulls(cursor, limit - events.size()));
+        }
+        return events;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Event> findValues(EventCursor cursor, int limit) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = cb.createQuery(Event.class);
+        Root<Event> root = query.from(Event.class);
+
+        Path<Integer> id = root.get("id");
+        Path<Comparable> key = root.get(cursor.getProperty());
+        boolean ascending = cursor.getDirection() == Direction.ASC;
+
+        if (!cursor.isFirst()) {
+            Integer lastId = cursor.getLastId();
+            Predicate afterId = ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+            if ("id".equals(cursor.getProperty())) {
+                query.where(afterId);
+            } else {
+                Comparable lastValue = (Comparable) cursor.getLastValue();
+                Predicate afterKey = ascending
+                    ? cb.greaterThan(key, lastValue)
+                    : cb.lessThan(key, lastValue);
+                query.where(cb.or(afterKey, cb.and(cb.equal(key, lastValue), afterId)));
+            }
+        } else if (cursor.isNullable()) {
+            query.where(cb.isNotNull(key));
+        }
+
+        if ("id".equals(cursor.getProperty())) {
+            query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            query.orderBy(
+                ascending ? cb.asc(key) : cb.desc(key),
+                ascending ? cb.asc(id) : cb.desc(id));
+        }
+
+        return this.entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    private List<Event> findNulls(EventCursor cursor, int limit) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = cb.createQuery(Event.class);
+        Root<Event> root = query.from(Event.class);
+
+        Path<Integer> id = root.get("id");
+        boolean ascending = cursor.getDirection() == Direction.ASC;
+        Predicate isNull = cb.isNull(root.get(cursor.getProperty()));
+        if (cursor.isInNulls()) {
+            Integer lastId = cursor.getLastId();
+            query.where(isNull,
+                ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId));
+        } else {
+            query.where(isNull);
+        }
+        query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+
+        return this.entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public List<Event> saveAllInBatches(List<Event> events) {
+        for (int i = 0; i < events.size(); i++) {
+            this.entityManager.persist(events.get(i));
+            if ((i + 1) % this.batchSize == 0) {
+                this.entityManager.flush();
+                this.entityManager.clear();
+            }
+        }
+        this.entityManager.flush();
+        this.entityManager.clear();
+        return events;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<EventSummary> search(EventSearchCondition condition, Pageable pageable) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<EventSummary> query = cb.createQuery(EventSummary.class);
+        Root<Event> root = query.from(Event.class);
+        query.select(cb.construct(EventSummary.class,
+            root.get("id"), root.get("name"), root.get("description"),
+            root.get("beginEnrollmentDateTime"), root.get("closeEnrollmentDateTime"),
+            root.get("beginEventDateTime"), root.get("endEventDateTime"), root.get("location"),
+            root.get("basePrice"), root.get("maxPrice"), root.get("limitOfEnrollment"),
+            root.get("offline"), root.get("free"), root.get("eventStatus"),
+            root.get("manager").get("id")));
+        query.where(searchPredicates(cb, root, condition));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<EventSummary> content = this.entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+            Root<Event> countRoot = countQuery.from(Event.class);
+            countQuery.select(cb.count(countRoot));
+            countQuery.where(searchPredicates(cb, countRoot, condition));
+            return this.entityManager.createQuery(countQuery).getSingleResult();
+        });
+    }
+
+    private static Predicate[] searchPredicates(CriteriaBuilder cb, Root<Event> root,
+        EventSearchCondition condition) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (condition.getEventStatus() != null) {
+            predicates.add(cb.equal(root.get("eventStatus"), condition.getEventStatus()));
+        }
+        addRange(cb, predicates, root.get("beginEnrollmentDateTime"),
+            condition.getBeginEnrollmentFrom(), condition.getBeginEnrollmentTo());
+        addRange(cb, predicates, root.get("closeEnrollmentDateTime"),
+            condition.getCloseEnrollmentFrom(), condition.getCloseEnrollmentTo());
+        addRange(cb, predicates, root.get("beginEventDateTime"),
+            condition.getBeginEventFrom(), condition.getBeginEventTo());
+        addRange(cb, predicates, root.get("endEventDateTime"),
+            condition.getEndEventFrom(), condition.getEndEventTo());
+        if (condition.getFree() != null) {
+            predicates.add(cb.equal(root.get("free"), condition.getFree()));
+        }
+        if (condition.getOffline() != null) {
+            predicates.add(cb.equal(root.get("offline"), condition.getOffline()));
+        }
+        if (condition.getBasePriceMin() != null) {
+            predicates.add(cb.ge(root.get("basePrice"), condition.getBasePriceMin()));
+        }
+        if (condition.getBasePriceMax() != null) {
+            predicates.add(cb.le(root.get("basePrice"), condition.getBasePriceMax()));
+        }
+        if (condition.getManagerId() != null) {
+            // manager.id 는 외래 키 컬럼이라 account 를 조인하지 않는다.
+            predicates.add(cb.equal(root.get("manager").get("id"), condition.getManagerId()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private static void addRange(CriteriaBuilder cb, List<Predicate> predicates,
+        Path<LocalDateTime> path, LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(path, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(path, to));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package me.kirok.restapi.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET /api/events/{id} 의 HAL JSON 응답을 직렬화된 바이트로 캐싱한다.
+ * 전체 바이트 크기로 제한되며 LRU 에 가깝게 제거된다. (Caffeine W-TinyLFU)
+ * 링크에 요청 호스트가 들어가기 때문에 응답을 만들 때 사용한 base URI 도 함께 보관하고,
+ * base URI 가 다르면 캐시 미스로 처리한다.
+ * 히트/미스/제거 횟수는 cache.* 메트릭(cache=events.response)으로 노출된다.
+ */
+@Component
+public class EventResponseCache {
+
+    private final Cache<Integer, CachedResponse> cache;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public EventResponseCache(MeterRegistry meterRegistry,
+        @Value("${events.response-cache.max-bytes:16777216}") long maxBytes) {
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Integer id, CachedResponse response) -> response.body.length)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "events.response");
+    }
+
+    /**
+     * @return 캐싱된 응답. 없거나 다른 base URI 로 만들어졌다면 null
+     */
+    public CachedResponse get(Integer id, String baseUri) {
+        CachedResponse response = this.cache.getIfPresent(id);
+        if (response == null || !response.baseUri.equals(baseUri)) {
+            return null;
+        }
+        return response;
+    }
+
+    /**
+     * 데이터베이스에서 읽기 전에 호출한다. 반환값을 {@link #put} 에 넘기면
+     * 읽는 도중에 무효화가 있었을 때 오래된 응답을 캐싱하지 않는다.
+     */
+    public long stamp() {
+        return this.invalidations.get();
+    }
+
+    public void put(Integer id, String baseUri, String eTag, byte[] body, long stamp) {
+        if (this.invalidations.get() != stamp) {
+            return;
+        }
+        this.cache.put(id, new CachedResponse(baseUri, eTag, body));
+        // put 과 무효화가 겹쳤다면 방금 넣은 값을 버린다.
+        if (this.invalidations.get() != stamp) {
+            this.cache.invalidate(id);
+        }
+    }
+
+    public void invalidate(Integer id) {
+        this.invalidations.incrementAndGet();
+        this.cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        this.invalidations.incrementAndGet();
+        this.cache.invalidateAll();
+    }
+
+    @Getter
+    public static final class CachedResponse {
+
+        private final String baseUri;
+        private final String eTag;
+        private final byte[] body;
+
+        private CachedResponse(String baseUri, String eTag, byte[] body) {
+            this.baseUri = baseUri;
+            this.eTag = eTag;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package me.kirok.restapi.events;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+
+/**
+ * 이벤트 검색 조건. 값이 없는(null) 조건은 적용하지 않는다.
+ * 날짜 범위는 from 이상, to 미만이다.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class EventSearchCondition {
+
+    private EventStatus eventStatus;
+
+    @DateTimeFormat(iso = ISO.DATE_TIME)
+    private LocalDateTime beginEnrollmentFrom;
+    @DateTimeFormat(iso = ISO.DATE_TIME)
+    private LocalDateTime beginEnrollmentTo;
+    @DateTimeFormat(iso = ISO.DATE_TIME)
+    private LocalDateTime closeEnrollmentFrom;
+    @DateTimeFormat(iso = ISO.DATE_TIME)
+    private LocalDateTime closeEnrollmentTo;
+    @DateTimeFormat(iso = ISO.DATE_TIME)
+    private LocalDateTime beginEventFrom;
+    @DateTimeFormat(iso = ISO.DATE_TIME)
+    private LocalDateTime beginEventTo;
+    @DateTimeFormat(iso = ISO.DATE_TIME)
+    private LocalDateTime endEventFrom;
+    @DateTimeFormat(iso = ISO.DATE_TIME)
+    private LocalDateTime endEventTo;
+
+    private Boolean free;
+    private Boolean offline;
+
+    /**
+     * basePrice 의 범위. Event.maxPrice 와 헷갈리지 않도록 필드 이름을 앞에 붙인다.
+     */
+    private Integer basePriceMin;
+    private Integer basePriceMax;
+
+    private Integer managerId;
+}
@@ -0,0 +1,127 @@
+package me.kirok.restapi.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import java.io.IOException;
+import me.kirok.restapi.accounts.Account;
+import me.kirok.restapi.commons.JsonWriters;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.boot.jackson.JsonComponent;
+
+/**
+ * Event 를 리플렉션 없이 필드 순서대로 직접 쓴다. manager(Account)는 id 만 managerId 로 쓴다.
+ * EntityModel 은 content 를 @JsonUnwrapped 로 펼치므로 unwrapping 용 인스턴스도 제공한다.
+ */
+@JsonComponent
+public class EventSerializer extends JsonSerializer<Event> {
+
+    private static final String[] FIELDS = {
+        "id", "name", "description",
+        "beginEnrollmentDateTime", "closeEnrollmentDateTime",
+        "beginEventDateTime", "endEventDateTime",
+        "location", "basePrice", "maxPrice", "limitOfEnrollment",
+        "offline", "free", "eventStatus", "managerId"
+    };
+
+    private final boolean unwrapping;
+
+    private final SerializedString[] names;
+
+    public EventSerializer() {
+        this(false, NameTransformer.NOP);
+    }
+
+    private EventSerializer(boolean unwrapping, NameTransformer transformer) {
+        this.unwrapping = unwrapping;
+        this.names = new SerializedString[FIELDS.length];
+        for (int i = 0; i < FIELDS.length; i++) {
+            this.names[i] = new SerializedString(transformer.transform(FIELDS[i]));
+        }
+    }
+
+    @Override
+    public void serialize(Event event, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+        if (!this.unwrapping) {
+            gen.writeStartObject(event);
+        }
+        writeFields(event, gen, provider);
+        if (!this.unwrapping) {
+            gen.writeEndObject();
+        }
+    }
+
+    @Override
+    public JsonSerializer<Event> unwrappingSerializer(NameTransformer transformer) {
+        return new EventSerializer(true, transformer);
+    }
+
+    @Override
+    public boolean isUnwrappingSerializer() {
+        return this.unwrapping;
+    }
+
+    @Override
+    public Class<Event> handledType() {
+        return Event.class;
+    }
+
+    private void writeFields(Event event, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+        SerializedString[] names = this.names;
+        int i = 0;
+        gen.writeFieldName(names[i++]);
+        writeInteger(gen, event.getId());
+        gen.writeFieldName(names[i++]);
+        gen.writeString(event.getName());
+        gen.writeFieldName(names[i++]);
+        gen.writeString(event.getDescription());
+        gen.writeFieldName(names[i++]);
+        JsonWriters.writeLocalDateTime(gen, provider, event.getBeginEnrollmentDateTime());
+        gen.writeFieldName(names[i++]);
+        JsonWriters.writeLocalDateTime(gen, provider, event.getCloseEnrollmentDateTime());
+        gen.writeFieldName(names[i++]);
+        JsonWriters.writeLocalDateTime(gen, provider, event.getBeginEventDateTime());
+        gen.writeFieldName(names[i++]);
+        JsonWriters.writeLocalDateTime(gen, provider, event.getEndEventDateTime());
+        gen.writeFieldName(names[i++]);
+        gen.writeString(event.getLocation());
+        gen.writeFieldName(names[i++]);
+        gen.writeNumber(event.getBasePrice());
+        gen.writeFieldName(names[i++]);
+        gen.writeNumber(event.getMaxPrice());
+        gen.writeFieldName(names[i++]);
+        gen.writeNumber(event.getLimitOfEnrollment());
+        gen.writeFieldName(names[i++]);
+        gen.writeBoolean(event.isOffline());
+        gen.writeFieldName(names[i++]);
+        gen.writeBoolean(event.isFree());
+        gen.writeFieldName(names[i++]);
+        EventStatus eventStatus = event.getEventStatus();
+        gen.writeString(eventStatus == null ? null : eventStatus.name());
+        gen.writeFieldName(names[i]);
+        writeInteger(gen, managerId(event.getManager()));
+    }
+
+    /**
+     * manager 가 초기화되지 않은 프록시여도 Account 를 읽지 않고 외래 키 값만 꺼낸다.
+     */
+    private static Integer managerId(Account manager) {
+        if (manager instanceof HibernateProxy) {
+            return (Integer) ((HibernateProxy) manager).getHibernateLazyInitializer()
+                .getIdentifier();
+        }
+        return manager == null ? null : manager.getId();
+    }
+
+    private static void writeInteger(JsonGenerator gen, Integer value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package me.kirok.restapi.events;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Links;
+
+/**
+ * COUNT 쿼리 없이 조회한 이벤트 목록 응답.
+ * page 블록의 totalElements 는 {@link EventCountCache} 에서 가져온 근사치이며
+ * totalElementsApproximate 로 이를 표시한다.
+ */
+public class EventSliceModel extends CollectionModel<EntityModel<Event>> {
+
+    private final SliceMetadata metadata;
+
+    public EventSliceModel(List<EntityModel<Event>> content, SliceMetadata metadata) {
+        super(content, Links.NONE, null);
+        this.metadata = metadata;
+    }
+
+    @JsonProperty("page")
+    public SliceMetadata getMetadata() {
+        return this.metadata;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SliceMetadata {
+
+        private final long size;
+        private final long number;
+        private final boolean hasNext;
+        private final long totalElements;
+        private final boolean totalElementsApproximate;
+    }
+}
@@ -0,0 +1,75 @@
+package me.kirok.restapi.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import java.io.IOException;
+import java.util.Collection;
+import me.kirok.restapi.commons.JsonWriters;
+import me.kirok.restapi.events.EventSliceModel.SliceMetadata;
+import org.springframework.boot.jackson.JsonComponent;
+import org.springframework.hateoas.EntityModel;
+
+/**
+ * 이벤트 목록(EventSliceModel)을 HAL 형식으로 직접 쓴다.
+ * Jackson2HalModule 이 만드는 것과 같은 _embedded.eventList, _links, page 구조다.
+ */
+@JsonComponent
+public class EventSliceModelSerializer extends JsonSerializer<EventSliceModel> {
+
+    /**
+     * Event 에는 @Relation 이 없으므로 DefaultLinkRelationProvider 와 같은 이름을 쓴다.
+     */
+    static final String COLLECTION_RELATION = "eventList";
+
+    private final JsonSerializer<Event> eventSerializer = new EventSerializer()
+        .unwrappingSerializer(NameTransformer.NOP);
+
+    @Override
+    public void serialize(EventSliceModel model, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+        gen.writeStartObject(model);
+
+        Collection<EntityModel<Event>> content = model.getContent();
+        if (!content.isEmpty()) {
+            gen.writeObjectFieldStart("_embedded");
+            gen.writeArrayFieldStart(COLLECTION_RELATION);
+            for (EntityModel<Event> item : content) {
+                gen.writeStartObject();
+                this.eventSerializer.serialize(item.getContent(), gen, provider);
+                if (!item.getLinks().isEmpty()) {
+                    gen.writeFieldName("_links");
+                    JsonWriters.writeHalLinks(gen, item.getLinks());
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+
+        if (!model.getLinks().isEmpty()) {
+            gen.writeFieldName("_links");
+            JsonWriters.writeHalLinks(gen, model.getLinks());
+        }
+
+        SliceMetadata metadata = model.getMetadata();
+        if (metadata != null) {
+            gen.writeObjectFieldStart("page");
+            gen.writeNumberField("size", metadata.getSize());
+            gen.writeNumberField("number", metadata.getNumber());
+            gen.writeBooleanField("hasNext", metadata.isHasNext());
+            gen.writeNumberField("totalElements", metadata.getTotalElements());
+            gen.writeBooleanField("totalElementsApproximate",
+                metadata.isTotalElementsApproximate());
+            gen.writeEndObject();
+        }
+
+        gen.writeEndObject();
+    }
+
+    @Override
+    public Class<EventSliceModel> handledType() {
+        return EventSliceModel.class;
+    }
+}
@@ -0,0 +1,290 @@
+package me.kirok.restapi.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.kirok.restapi.commons.DataSourceRouting;
+import me.kirok.restapi.enrollments.EnrollmentEngine;
+import me.kirok.restapi.events.EventRepository.EventTransition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * beginEnrollmentDateTime 이 되면 PUBLISHED 이벤트를 BEGAN_ENROLLMENT 로 바꾼다.
+ *
+ * <p>다가오는 전이 시각을 priority queue 에 두고 가장 이른 시각에 맞춰 깨어난다.
+ * 깨어났을 때 도래한 이벤트를 모아 id 묶음마다 UPDATE 한 번으로 바꾸고
+ * (events.status.batch-size), 바뀐 이벤트의 응답 캐시와 참가 신청 카운터에 반영한다.
+ * 다른 경로로 공개된 이벤트를 놓치지 않도록 주기적으로 데이터베이스에서 다시 읽는다
+ * (events.status.resync-interval-ms). 시각은 시스템 기본 시간대의 LocalDateTime 으로 비교한다.
+ */
+@Slf4j
+@Component
+public class EventStatusScheduler {
+
+    private static final EventStatus FROM = EventStatus.PUBLISHED;
+    private static final EventStatus TO = EventStatus.BEGAN_ENROLLMENT;
+    private static final long RETRY_DELAY_MILLIS = 1_000;
+
+    private final EventRepository eventRepository;
+
+    private final EventResponseCache eventResponseCache;
+
+    private final EnrollmentEngine enrollmentEngine;
+
+    private final TransactionTemplate transaction;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Clock clock;
+
+    private final int batchSize;
+
+    private final long resyncIntervalMillis;
+
+    private final Timer lag;
+
+    private final DistributionSummary batchSizes;
+
+    private final Counter transitions;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+        r -> {
+            Thread thread = new Thread(r, "event-status-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    /**
+     * 큐 항목은 갱신 시 지우지 않고, 꺼낼 때 scheduled 의 최신 시각과 다르면 버린다.
+     */
+    private final PriorityQueue<Transition> queue = new PriorityQueue<>();
+
+    private final Map<Integer, Long> scheduled = new HashMap<>();
+
+    private ScheduledFuture<?> wakeUp;
+
+    private long nextWakeUpMillis = Long.MAX_VALUE;
+
+    public EventStatusScheduler(EventRepository eventRepository,
+        EventResponseCache eventResponseCache, EnrollmentEngine enrollmentEngine,
+        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+        @Value("${events.status.batch-size:1000}") int batchSize,
+        @Value("${events.status.resync-interval-ms:600000}") long resyncIntervalMillis) {
+        this.eventRepository = eventRepository;
+        this.eventResponseCache = eventResponseCache;
+        this.enrollmentEngine = enrollmentEngine;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.clock = Clock.systemDefaultZone();
+        this.batchSize = batchSize;
+        this.resyncIntervalMillis = resyncIntervalMillis;
+
+        this.lag = Timer.builder("events.status.transition.lag")
+            .description("time between beginEnrollmentDateTime and the applied status update")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("events.status.transition.batch-size")
+            .description("events moved by one bulk update")
+            .register(meterRegistry);
+        this.transitions = meterRegistry.counter("events.status.transitions");
+        meterRegistry.gauge("events.status.scheduled", this.scheduled, this::scheduledCount);
+    }
+
+    @PostConstruct
+    public void start() {
+        resync();
+        this.executor.scheduleWithFixedDelay(this::resyncQuietly,
+            this.resyncIntervalMillis, this.resyncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * 이벤트가 저장된 뒤에 호출한다. PUBLISHED 가 아니면 예약을 취소한다.
+     */
+    public void schedule(Event event) {
+        if (event.getId() == null) {
+            return;
+        }
+        if (event.getEventStatus() != FROM || event.getBeginEnrollmentDateTime() == null) {
+            synchronized (this) {
+                this.scheduled.remove(event.getId());
+            }
+            return;
+        }
+        schedule(event.getId(), toMillis(event.getBeginEnrollmentDateTime()));
+    }
+
+    public void scheduleAll(Collection<Event> events) {
+        events.forEach(this::schedule);
+    }
+
+    /**
+     * 밀린 전이를 한 번에 처리하고, 다가오는 전이를 데이터베이스에서 다시 읽어 예약한다.
+     */
+    public void resync() {
+        LocalDateTime now = LocalDateTime.now(this.clock);
+        int overdue = this.transaction.execute(
+            status -> this.eventRepository.transitionOverdueStatus(FROM, TO, now));
+        if (overdue > 0) {
+            this.eventResponseCache.invalidateAll();
+            this.enrollmentEngine.transitionOverdueStatus(FROM, TO, now);
+            this.transitions.increment(overdue);
+            this.batchSizes.record(overdue);
+        }
+
+        // 방금 처리한 UPDATE 이후의 상태를 읽어야 하므로 primary 에서 읽는다.
+        List<EventTransition> upcoming = new ArrayList<>();
+        DataSourceRouting.runOnPrimary(() -> this.readOnlyTransaction.executeWithoutResult(
+            status -> {
+                try (Stream<EventTransition> stream = this.eventRepository
+                    .streamUpcomingTransitions(FROM, now)) {
+                    stream.forEach(upcoming::add);
+                }
+            }));
+        upcoming.forEach(t -> schedule(t.getId(), toMillis(t.getBeginEnrollmentDateTime())));
+        log.info("event status scheduler synced. overdue={}, scheduled={}", overdue,
+            scheduledCount(this.scheduled));
+    }
+
+    /**
+     * 시각이 도래한 전이를 적용한다. 실패하면 잠시 뒤 다시 시도한다.
+     */
+    void applyDue() {
+        long now = this.clock.millis();
+        List<Transition> due = pollDue(now);
+        for (int from = 0; from < due.size(); from += this.batchSize) {
+            List<Transition> batch = due.subList(from, Math.min(from + this.batchSize, due.size()));
+            try {
+                apply(batch);
+            } catch (RuntimeException e) {
+                log.warn("failed to apply {} event status transitions", batch.size(), e);
+                long retryAt = this.clock.millis() + RETRY_DELAY_MILLIS;
+                due.subList(from, due.size()).forEach(t -> schedule(t.eventId, retryAt));
+                break;
+            }
+        }
+        synchronized (this) {
+            rescheduleWakeUp();
+        }
+    }
+
+    private void apply(List<Transition> batch) {
+        List<Integer> ids = new ArrayList<>(batch.size());
+        batch.forEach(t -> ids.add(t.eventId));
+        LocalDateTime now = LocalDateTime.now(this.clock);
+        int updated = this.transaction.execute(
+            status -> this.eventRepository.transitionStatus(ids, FROM, TO, now));
+
+        // 조건에 맞지 않아 바뀌지 않은 이벤트도 무효화되지만 다음 조회에서 다시 채워질 뿐이다.
+        ids.forEach(this.eventResponseCache::invalidate);
+        this.enrollmentEngine.transitionStatus(ids, FROM, TO, now);
+        long appliedAt = this.clock.millis();
+        batch.forEach(t -> this.lag.record(Math.max(0, appliedAt - t.atMillis),
+            TimeUnit.MILLISECONDS));
+        this.transitions.increment(updated);
+        this.batchSizes.record(updated);
+    }
+
+    private synchronized void schedule(Integer eventId, long atMillis) {
+        this.scheduled.put(eventId, atMillis);
+        this.queue.add(new Transition(atMillis, eventId));
+        if (atMillis < this.nextWakeUpMillis) {
+            rescheduleWakeUp();
+        }
+    }
+
+    private synchronized List<Transition> pollDue(long now) {
+        List<Transition> due = new ArrayList<>();
+        while (!this.queue.isEmpty() && this.queue.peek().atMillis <= now) {
+            Transition transition = this.queue.poll();
+            Long latest = this.scheduled.get(transition.eventId);
+            if (latest != null && latest == transition.atMillis) {
+                this.scheduled.remove(transition.eventId);
+                due.add(transition);
+            }
+        }
+        return due;
+    }
+
+    private void rescheduleWakeUp() {
+        // 취소되거나 바뀐 항목이 앞에 쌓여 있으면 미리 버린다.
+        while (!this.queue.isEmpty()) {
+            Transition head = this.queue.peek();
+            Long latest = this.scheduled.get(head.eventId);
+            if (latest != null && latest == head.atMillis) {
+                break;
+            }
+            this.queue.poll();
+        }
+        if (this.queue.isEmpty()) {
+            this.nextWakeUpMillis = Long.MAX_VALUE;
+            return;
+        }
+        long at = this.queue.peek().atMillis;
+        if (this.wakeUp != null) {
+            this.wakeUp.cancel(false);
+        }
+        this.nextWakeUpMillis = at;
+        this.wakeUp = this.executor.schedule(this::applyDue,
+            Math.max(0, at - this.clock.millis()), TimeUnit.MILLISECONDS);
+    }
+
+    private void resyncQuietly() {
+        try {
+            resync();
+        } catch (RuntimeException e) {
+            log.warn("failed to resync event status scheduler", e);
+        }
+    }
+
+    private synchronized double scheduledCount(Map<Integer, Long> scheduled) {
+        return scheduled.size();
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Transition implements Comparable<Transition> {
+
+        private final long atMillis;
+
+        private final Integer eventId;
+
+        private Transition(long atMillis, Integer eventId) {
+            this.atMillis = atMillis;
+            this.eventId = eventId;
+        }
+
+        @Override
+        public int compareTo(Transition other) {
+            return Long.compare(this.atMillis, other.atMillis);
+        }
+    }
+}
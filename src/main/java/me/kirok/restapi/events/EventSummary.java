@@ -0,0 +1,33 @@
+package me.kirok.restapi.events;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.hateoas.server.core.Relation;
+
+/**
+ * 목록 조회 전용 읽기 모델. JPQL 생성자 표현식으로 필요한 컬럼만 읽기 때문에
+ * 영속성 컨텍스트에 올라가지 않고 manager(Account)와 roles 도 로딩하지 않는다.
+ * manager 는 id 만 노출한다.
+ */
+@Getter
+@AllArgsConstructor
+@Relation(collectionRelation = "eventList")
+public class EventSummary {
+
+    private final Integer id;
+    private final String name;
+    private final String description;
+    private final LocalDateTime beginEnrollmentDateTime;
+    private final LocalDateTime closeEnrollmentDateTime;
+    private final LocalDateTime beginEventDateTime;
+    private final LocalDateTime endEventDateTime;
+    private final String location;
+    private final int basePrice;
+    private final int maxPrice;
+    private final int limitOfEnrollment;
+    private final boolean offline;
+    private final boolean free;
+    private final EventStatus eventStatus;
+    private final Integer managerId;
+}
@@ -0,0 +1,338 @@
+package me.kirok.restapi.events;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.kirok.restapi.commons.DataSourceRouting;
+import me.kirok.restapi.commons.IntLongArrayMap;
+import me.kirok.restapi.events.EventRepository.EventVersion;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Event.name, Event.description 에 대한 Lucene 역색인.
+ *
+ * <p>이벤트가 생성/수정될 때 문서를 갱신하고 near-real-time searcher 를 바로 새로 연다.
+ * 디스크 commit 은 주기적으로만 하고(events.search.commit-interval-ms), 커밋되지 않은 변경은
+ * 시작할 때 (id, version) 을 데이터베이스와 비교해서 바뀐 이벤트만 다시 색인한다.
+ * 저장 후 색인하는 순서는 저장 순서와 다를 수 있으므로, 이미 색인한 것보다 오래된 version 은 무시한다.
+ * events.search.index-dir 가 비어 있으면 메모리에 색인한다.
+ */
+@Slf4j
+@Component
+public class EventTextIndex {
+
+    static final String ID = "id";
+    static final String ID_VALUE = "id_value";
+    static final String VERSION = "version";
+    static final String NAME = "name";
+    static final String DESCRIPTION = "description";
+
+    private static final float NAME_BOOST = 2.0f;
+    private static final int MAX_QUERY_TERMS = 32;
+    private static final int CATCH_UP_CHUNK_SIZE = 500;
+
+    private final EventRepository eventRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private final Directory directory;
+
+    private final IndexWriter writer;
+
+    private final SearcherManager searcherManager;
+
+    private final long commitIntervalMillis;
+
+    /**
+     * 이벤트별로 색인한 version. 확인과 문서 갱신을 함께 하도록 이 객체로 동기화한다.
+     */
+    private final IntLongArrayMap versions = new IntLongArrayMap(1);
+
+    private final ScheduledExecutorService committer = Executors.newSingleThreadScheduledExecutor(
+        r -> {
+            Thread thread = new Thread(r, "event-text-index-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    public EventTextIndex(EventRepository eventRepository,
+        PlatformTransactionManager transactionManager,
+        @Value("${events.search.index-dir:}") String indexDir,
+        @Value("${events.search.commit-interval-ms:5000}") long commitIntervalMillis)
+        throws IOException {
+        this.eventRepository = eventRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.commitIntervalMillis = commitIntervalMillis;
+
+        this.directory = indexDir.isBlank()
+            ? new ByteBuffersDirectory()
+            : FSDirectory.open(Paths.get(indexDir));
+        this.writer = new IndexWriter(this.directory,
+            new IndexWriterConfig(this.analyzer).setOpenMode(OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(this.writer, null);
+    }
+
+    @PostConstruct
+    public void start() {
+        this.committer.scheduleWithFixedDelay(this::commit,
+            this.commitIntervalMillis, this.commitIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        this.committer.shutdownNow();
+        this.searcherManager.close();
+        this.writer.close();
+        this.directory.close();
+    }
+
+    /**
+     * 색인과 데이터베이스의 (id, version) 을 비교해서 바뀌거나 빠진 이벤트만 다시 색인하고,
+     * 데이터베이스에 없는 문서는 지운다. replica 지연으로 빠지지 않도록 primary 에서 읽는다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() throws IOException {
+        Map<Integer, Long> indexed = readIndexedVersions();
+        List<Integer> stale = new ArrayList<>();
+        DataSourceRouting.runOnPrimary(() -> this.readOnlyTransaction.executeWithoutResult(
+            status -> {
+                try (Stream<EventVersion> versions = this.eventRepository.streamVersions()) {
+                    versions.forEach(v -> {
+                        remember(v.getId(), versionOf(v.getVersion()));
+                        Long indexedVersion = indexed.remove(v.getId());
+                        if (indexedVersion == null
+                            || indexedVersion != versionOf(v.getVersion())) {
+                            stale.add(v.getId());
+                        }
+                    });
+                }
+            }));
+
+        for (Integer removed : indexed.keySet()) {
+            this.writer.deleteDocuments(new Term(ID, String.valueOf(removed)));
+        }
+        for (int from = 0; from < stale.size(); from += CATCH_UP_CHUNK_SIZE) {
+            List<Integer> ids = stale.subList(from, Math.min(from + CATCH_UP_CHUNK_SIZE,
+                stale.size()));
+            write(DataSourceRouting.callOnPrimary(() -> this.eventRepository.findAllById(ids)));
+        }
+        this.writer.commit();
+        this.searcherManager.maybeRefresh();
+        log.info("event text index caught up. reindexed={}, removed={}", stale.size(),
+            indexed.size());
+    }
+
+    public void index(Event event) {
+        indexAll(List.of(event));
+    }
+
+    /**
+     * 이벤트 저장 후에 호출한다. 색인에 실패해도 저장은 이미 끝났으므로 예외를 던지지 않고,
+     * 다음 시작 때 catch-up 에서 다시 색인된다.
+     */
+    public void indexAll(Collection<Event> events) {
+        try {
+            write(events);
+            this.searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            log.warn("failed to index {} events", events.size(), e);
+        }
+    }
+
+    /**
+     * 관련도(BM25) 순으로 offset 부터 limit 개의 이벤트 id 를 반환한다. name 일치에 가중치를 더 준다.
+     */
+    public Hits search(String text, int offset, int limit) {
+        try {
+            Query query = toQuery(text);
+            if (query == null) {
+                return new Hits(List.of(), false);
+            }
+            IndexSearcher searcher = this.searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, offset + limit + 1);
+                List<Integer> ids = new ArrayList<>(limit);
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                for (int i = offset; i < Math.min(scoreDocs.length, offset + limit); i++) {
+                    ids.add(Integer.valueOf(searcher.doc(scoreDocs[i].doc).get(ID)));
+                }
+                return new Hits(ids, scoreDocs.length > offset + limit);
+            } finally {
+                this.searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(Iterable<Event> events) throws IOException {
+        synchronized (this.versions) {
+            for (Event event : events) {
+                if (!isOlder(event.getId(), versionOf(event.getVersion()))) {
+                    this.writer.updateDocument(new Term(ID, String.valueOf(event.getId())),
+                        toDocument(event));
+                    this.versions.put(event.getId(), versionOf(event.getVersion()));
+                }
+            }
+        }
+    }
+
+    /**
+     * 시작할 때 데이터베이스의 version 을 기억한다. 그 사이에 더 새로운 version 을 색인했다면 그대로 둔다.
+     */
+    private void remember(int id, long version) {
+        synchronized (this.versions) {
+            if (!isOlder(id, version)) {
+                this.versions.put(id, version);
+            }
+        }
+    }
+
+    /**
+     * @return 이미 색인한 version 보다 오래되었다면 true
+     */
+    private boolean isOlder(int id, long version) {
+        int slot = this.versions.indexOf(id);
+        return slot >= 0 && this.versions.get(slot, 0) > version;
+    }
+
+    private void commit() {
+        try {
+            if (this.writer.hasUncommittedChanges()) {
+                this.writer.commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("failed to commit event text index", e);
+        }
+    }
+
+    private Query toQuery(String text) throws IOException {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        int terms = 0;
+        try (TokenStream tokens = this.analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken() && terms < MAX_QUERY_TERMS) {
+                String value = term.toString();
+                builder.add(new BoostQuery(new TermQuery(new Term(NAME, value)), NAME_BOOST),
+                    Occur.SHOULD);
+                builder.add(new TermQuery(new Term(DESCRIPTION, value)), Occur.SHOULD);
+                terms++;
+            }
+            tokens.end();
+        }
+        return terms == 0 ? null : builder.build();
+    }
+
+    private Map<Integer, Long> readIndexedVersions() throws IOException {
+        Map<Integer, Long> versions = new HashMap<>();
+        IndexSearcher searcher = this.searcherManager.acquire();
+        try {
+            for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                Bits liveDocs = leaf.reader().getLiveDocs();
+                NumericDocValues ids = leaf.reader().getNumericDocValues(ID_VALUE);
+                NumericDocValues docVersions = leaf.reader().getNumericDocValues(VERSION);
+                if (ids == null || docVersions == null) {
+                    continue;
+                }
+                for (int doc = ids.nextDoc(); doc != NumericDocValues.NO_MORE_DOCS;
+                    doc = ids.nextDoc()) {
+                    if ((liveDocs == null || liveDocs.get(doc)) && docVersions.advanceExact(doc)) {
+                        versions.put((int) ids.longValue(), docVersions.longValue());
+                    }
+                }
+            }
+        } finally {
+            this.searcherManager.release(searcher);
+        }
+        return versions;
+    }
+
+    private static Document toDocument(Event event) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(event.getId()), Store.YES));
+        document.add(new NumericDocValuesField(ID_VALUE, event.getId()));
+        document.add(new NumericDocValuesField(VERSION, versionOf(event.getVersion())));
+        if (event.getName() != null) {
+            document.add(new TextField(NAME, event.getName(), Store.NO));
+        }
+        if (event.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION, event.getDescription(), Store.NO));
+        }
+        return document;
+    }
+
+    private static long versionOf(Long version) {
+        return version == null ? -1 : version;
+    }
+
+    public static final class Hits {
+
+        private final List<Integer> ids;
+        private final boolean hasMore;
+
+        Hits(List<Integer> ids, boolean hasMore) {
+            this.ids = ids;
+            this.hasMore = hasMore;
+        }
+
+        /**
+         * @return 관련도 순서의 이벤트 id
+         */
+        public List<Integer> getIds() {
+            return this.ids;
+        }
+
+        public boolean hasMore() {
+            return this.hasMore;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package me.kirok.restapi.index;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
+import me.kirok.restapi.commons.LinkFactory;
 import me.kirok.restapi.events.EventController;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,10 +9,16 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class IndexController {
 
+    private final LinkFactory linkFactory;
+
+    public IndexController(LinkFactory linkFactory) {
+        this.linkFactory = linkFactory;
+    }
+
     @GetMapping("/api")
     public RepresentationModel index() {
         var index = new RepresentationModel<>();
-        index.add(linkTo(EventController.class).withRel("events"));
+        index.add(this.linkFactory.collection(EventController.class, "events"));
         return index;
     }
 
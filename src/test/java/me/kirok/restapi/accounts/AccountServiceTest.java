@@ -3,10 +3,13 @@ package me.kirok.restapi.accounts;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -24,6 +27,9 @@ class AccountServiceTest {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @Test
     public void findByUsername() {
 
@@ -46,6 +52,51 @@ class AccountServiceTest {
         assertThat(this.passwordEncoder.matches(password, userDetails.getPassword())).isTrue();
     }
 
+    @Test
+    @DisplayName("두 번째 조회부터는 캐시에서 읽고, 대소문자와 공백이 달라도 같은 계정으로 조회")
+    public void findByUsername_Cached() {
+        // given
+        String username = "cached@email.com";
+        this.accountService.saveAccount(Account.builder()
+            .email(username)
+            .password("123123")
+            .roles(Set.of(AccountRole.USER))
+            .build());
+        double hits = cacheGets("hit");
+
+        // when
+        UserDetails first = this.accountService.loadUserByUsername(username);
+        ((User) first).eraseCredentials();
+        UserDetails second = this.accountService.loadUserByUsername(" Cached@Email.com ");
+
+        // then
+        assertThat(cacheGets("hit")).isEqualTo(hits + 1);
+        assertThat(second.getUsername()).isEqualTo(username);
+        assertThat(second.getPassword()).isNotNull();
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("계정을 수정하면 캐시된 UserDetails 를 비운다")
+    public void saveAccount_Invalidates() {
+        // given
+        String username = "changed@email.com";
+        Account account = this.accountService.saveAccount(Account.builder()
+            .email(username)
+            .password("before")
+            .roles(Set.of(AccountRole.USER))
+            .build());
+        this.accountService.loadUserByUsername(username);
+
+        // when
+        account.setPassword("after");
+        this.accountService.saveAccount(account);
+        UserDetails userDetails = this.accountService.loadUserByUsername(username);
+
+        // then
+        assertThat(this.passwordEncoder.matches("after", userDetails.getPassword())).isTrue();
+    }
+
     @Test
     public void findByUsernameFail() {
         String username = "klasdlkfj@gmail.com";
@@ -55,5 +106,11 @@ class AccountServiceTest {
 
     }
 
-
+    private double cacheGets(String result) {
+        return this.meterRegistry.get("cache.gets")
+            .tag("cache", "accounts.user-details")
+            .tag("result", result)
+            .functionCounter()
+            .count();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package me.kirok.restapi.commons;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("전용 스레드에서 해싱하고 대기/해싱 시간을 기록")
+    public void encodeAndMatches() {
+        // given
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+            NoOpPasswordEncoder.getInstance(), 2, 4, meterRegistry);
+
+        // when
+        String encoded = encoder.encode("pass");
+
+        // then
+        assertThat(encoder.matches("pass", encoded)).isTrue();
+        assertThat(encoder.matches("wrong", encoded)).isFalse();
+        assertThat(meterRegistry.get("security.password.hashing.time")
+            .tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("security.password.hashing.queue-wait")
+            .tag("operation", "encode").timer().count()).isEqualTo(1);
+        encoder.destroy();
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 기다리지 않고 거절")
+    public void rejectWhenQueueIsFull() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1,
+            meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (meterRegistry.get("security.password.hashing.queue").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+
+        // when & then
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("c"));
+        assertThat(meterRegistry.get("security.password.hashing.rejections").counter().count())
+            .isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("b");
+        encoder.destroy();
+    }
+}
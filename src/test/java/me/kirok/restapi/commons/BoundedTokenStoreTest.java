@@ -0,0 +1,148 @@
+package me.kirok.restapi.commons;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+class BoundedTokenStoreTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedTokenStore tokenStore;
+
+    @AfterEach
+    public void tearDown() {
+        if (tokenStore != null) {
+            tokenStore.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("저장한 토큰을 값, 인증, 클라이언트, 사용자로 조회")
+    public void storeAndRead() {
+        // given
+        tokenStore = new BoundedTokenStore(10, 10, 60_000, meterRegistry);
+        OAuth2Authentication authentication = authentication("user@email.com");
+        DefaultOAuth2AccessToken token = accessToken("access", 60_000);
+        token.setRefreshToken(new DefaultOAuth2RefreshToken("refresh"));
+
+        // when
+        tokenStore.storeAccessToken(token, authentication);
+        tokenStore.storeRefreshToken(token.getRefreshToken(), authentication);
+
+        // then
+        assertThat(tokenStore.readAccessToken("access")).isEqualTo(token);
+        assertThat(tokenStore.readAuthentication("access")).isEqualTo(authentication);
+        assertThat(tokenStore.getAccessToken(authentication)).isEqualTo(token);
+        assertThat(tokenStore.findTokensByClientId("myApp")).containsExactly(token);
+        assertThat(tokenStore.findTokensByClientIdAndUserName("myApp", "user@email.com"))
+            .containsExactly(token);
+        assertThat(meterRegistry.get("security.token-store.memory.estimate").gauge().value())
+            .isPositive();
+
+        // when
+        tokenStore.removeAccessTokenUsingRefreshToken(token.getRefreshToken());
+
+        // then
+        assertThat(tokenStore.readAccessToken("access")).isNull();
+        assertThat(tokenStore.findTokensByClientId("myApp")).isEmpty();
+        assertThat(tokenStore.readRefreshToken("refresh")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("만료된 토큰은 sweep 에서 제거")
+    public void sweepExpiredTokens() throws InterruptedException {
+        // given
+        tokenStore = new BoundedTokenStore(10, 10, 10, meterRegistry);
+        tokenStore.storeAccessToken(accessToken("expired", 20), authentication("a@email.com"));
+        tokenStore.storeAccessToken(accessToken("alive", 60_000), authentication("b@email.com"));
+
+        // when
+        Thread.sleep(100);
+        tokenStore.sweep();
+
+        // then
+        assertThat(tokenStore.readAccessToken("expired")).isNull();
+        assertThat(tokenStore.readAccessToken("alive")).isNotNull();
+        assertThat(tokenStore.findTokensByClientIdAndUserName("myApp", "a@email.com")).isEmpty();
+        assertThat(meterRegistry.get("security.token-store.sweep").timer().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("상한에 도달하면 가장 먼저 만료될 토큰부터 제거")
+    public void evictSoonestWhenFull() {
+        // given
+        tokenStore = new BoundedTokenStore(3, 3, 1_000, meterRegistry);
+        List<Integer> ttls = List.of(30_000, 10_000, 20_000);
+        for (int i = 0; i < ttls.size(); i++) {
+            tokenStore.storeAccessToken(accessToken("token" + i, ttls.get(i)),
+                authentication("user" + i + "@email.com"));
+        }
+
+        // when
+        tokenStore.storeAccessToken(accessToken("token3", 40_000),
+            authentication("user3@email.com"));
+
+        // then
+        assertThat(tokenStore.getAccessTokenCount()).isEqualTo(3);
+        assertThat(tokenStore.readAccessToken("token1")).isNull();
+        assertThat(tokenStore.readAccessToken("token3")).isNotNull();
+        assertThat(meterRegistry.get("security.token-store.evictions").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("가득 차면 상한의 1/10 을 한 번에 제거하고, 같은 값으로 다시 저장하면 교체")
+    public void evictInBatchesAndReplace() {
+        // given
+        tokenStore = new BoundedTokenStore(20, 20, 1_000, meterRegistry);
+        for (int i = 0; i < 20; i++) {
+            tokenStore.storeAccessToken(accessToken("token" + i, 10_000 + i * 1_000L),
+                authentication("user" + i + "@email.com"));
+        }
+
+        // when
+        tokenStore.storeAccessToken(accessToken("token20", 60_000),
+            authentication("user20@email.com"));
+        tokenStore.storeAccessToken(accessToken("token20", 60_000),
+            authentication("other@email.com"));
+
+        // then
+        assertThat(tokenStore.getAccessTokenCount()).isEqualTo(19);
+        assertThat(tokenStore.readAccessToken("token0")).isNull();
+        assertThat(tokenStore.readAccessToken("token1")).isNull();
+        assertThat(meterRegistry.get("security.token-store.evictions").counter().count())
+            .isEqualTo(2);
+        assertThat(tokenStore.findTokensByClientIdAndUserName("myApp", "user20@email.com"))
+            .isEmpty();
+        assertThat(tokenStore.findTokensByClientIdAndUserName("myApp", "other@email.com"))
+            .hasSize(1);
+    }
+
+    private DefaultOAuth2AccessToken accessToken(String value, long ttlMillis) {
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(value);
+        token.setExpiration(new Date(System.currentTimeMillis() + ttlMillis));
+        token.setTokenType(OAuth2AccessToken.BEARER_TYPE);
+        return token;
+    }
+
+    private OAuth2Authentication authentication(String username) {
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "myApp",
+            Collections.emptyList(), true, Set.of("read", "write"), null, null, null, null);
+        return new OAuth2Authentication(request,
+            new UsernamePasswordAuthenticationToken(username, "N/A", Collections.emptyList()));
+    }
+}
@@ -0,0 +1,78 @@
+package me.kirok.restapi.commons;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class CachingPasswordEncoderTest {
+
+    private final AtomicInteger delegateMatches = new AtomicInteger();
+
+    private final PasswordEncoder countingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{noop}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            delegateMatches.incrementAndGet();
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    };
+
+    private final CachingPasswordEncoder encoder = new CachingPasswordEncoder(countingEncoder,
+        Duration.ofMinutes(1), 100, new SimpleMeterRegistry(), "test");
+
+    @Test
+    @DisplayName("성공한 검증은 캐싱해서 다시 해싱하지 않음")
+    public void cacheSuccessfulMatches() {
+        // given
+        String encoded = encoder.encode("pass");
+
+        // when
+        boolean first = encoder.matches("pass", encoded);
+        boolean second = encoder.matches("pass", encoded);
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(delegateMatches.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("실패한 검증은 캐싱하지 않음")
+    public void neverCacheFailures() {
+        // given
+        String encoded = encoder.encode("pass");
+
+        // when
+        encoder.matches("wrong", encoded);
+        boolean retried = encoder.matches("wrong", encoded);
+
+        // then
+        assertThat(retried).isFalse();
+        assertThat(delegateMatches.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("저장된 secret 이 바뀌거나 캐시를 비우면 다시 검증")
+    public void missWhenSecretChanges() {
+        // given
+        encoder.matches("pass", encoder.encode("pass"));
+
+        // when
+        boolean changed = encoder.matches("pass", encoder.encode("other"));
+        encoder.invalidateAll();
+        encoder.matches("pass", encoder.encode("pass"));
+
+        // then
+        assertThat(changed).isFalse();
+        assertThat(delegateMatches.get()).isEqualTo(3);
+    }
+}
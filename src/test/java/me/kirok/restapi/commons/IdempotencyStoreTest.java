@@ -0,0 +1,133 @@
+package me.kirok.restapi.commons;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class IdempotencyStoreTest {
+
+    private static final byte[] REQUEST = "request".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("처리 중인 키로 동시에 온 요청은 기다렸다가 같은 응답을 받는다")
+    public void concurrentDuplicatesWait() throws Exception {
+        // given
+        IdempotencyStore store = new IdempotencyStore(meterRegistry, 1024, 60_000, 5_000);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // when
+        Future<ResponseEntity<byte[]>> first = executor.submit(
+            () -> store.execute("user", "key", REQUEST, () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                release.await();
+                return ResponseEntity.status(HttpStatus.CREATED).body(new byte[]{1, 2, 3});
+            }));
+        started.await();
+        Future<ResponseEntity<byte[]>> second = executor.submit(
+            () -> store.execute("user", "key", REQUEST, () -> {
+                calls.incrementAndGet();
+                return ResponseEntity.ok().build();
+            }));
+        Thread.sleep(100);
+        release.countDown();
+
+        // then
+        assertThat(first.get(1, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        ResponseEntity<byte[]> replayed = second.get(1, TimeUnit.SECONDS);
+        assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replayed.getBody()).containsExactly(new byte[]{1, 2, 3});
+        assertThat(replayed.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER))
+            .isEqualTo("true");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("같은 키로 다른 요청이 오면 422, 다른 사용자의 같은 키는 따로 처리")
+    public void mismatchAndOwnerScope() throws Exception {
+        // given
+        IdempotencyStore store = new IdempotencyStore(meterRegistry, 1024, 60_000, 5_000);
+        store.execute("user", "key", REQUEST, () -> ResponseEntity.ok().build());
+
+        // when
+        ResponseEntity<byte[]> mismatched = store.execute("user", "key",
+            "other".getBytes(StandardCharsets.UTF_8), () -> ResponseEntity.ok().build());
+        ResponseEntity<byte[]> otherOwner = store.execute("other", "key", REQUEST,
+            () -> ResponseEntity.accepted().build());
+
+        // then
+        assertThat(mismatched.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(otherOwner.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(meterRegistry.get("idempotency.requests").tag("result", "mismatched")
+            .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("예외로 끝난 요청은 보관하지 않아 같은 키로 다시 시도할 수 있다")
+    public void failureReleasesKey() throws Exception {
+        // given
+        IdempotencyStore store = new IdempotencyStore(meterRegistry, 1024, 60_000, 5_000);
+        assertThatThrownBy(() -> store.execute("user", "key", REQUEST, () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // when
+        ResponseEntity<byte[]> retried = store.execute("user", "key", REQUEST,
+            () -> ResponseEntity.status(HttpStatus.CREATED).build());
+
+        // then
+        assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retried.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+    }
+
+    @Test
+    @DisplayName("보관한 응답 본문이 max-bytes 를 넘으면 항목을 제거")
+    public void evictWhenFull() throws Exception {
+        // given
+        IdempotencyStore store = new IdempotencyStore(meterRegistry, 1_000, 60_000, 5_000);
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            store.execute("user", "key" + i, REQUEST, () -> {
+                calls.incrementAndGet();
+                return ResponseEntity.status(HttpStatus.CREATED).body(new byte[400]);
+            });
+        }
+
+        // then
+        assertThat(store.size()).isLessThanOrEqualTo(2);
+        for (int i = 0; i < 10; i++) {
+            store.execute("user", "key" + i, REQUEST, () -> {
+                calls.incrementAndGet();
+                return ResponseEntity.status(HttpStatus.CREATED).body(new byte[400]);
+            });
+        }
+        // 남아 있던 항목(최대 2개)만 재전송되고 나머지는 다시 처리된다.
+        assertThat(calls.get()).isGreaterThanOrEqualTo(18);
+    }
+}
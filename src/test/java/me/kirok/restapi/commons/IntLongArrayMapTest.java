@@ -0,0 +1,76 @@
+package me.kirok.restapi.commons;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class IntLongArrayMapTest {
+
+    @Test
+    @DisplayName("저장한 값을 키로 조회하고, 같은 키로 다시 저장하면 값을 교체")
+    public void putAndReplace() {
+        // given
+        IntLongArrayMap map = new IntLongArrayMap(2);
+        map.put(1, 10, 20);
+        map.put(-1, 30, 40);
+
+        // when
+        map.put(1, 11, 21);
+
+        // then
+        assertThat(map.size()).isEqualTo(2);
+        int slot = map.indexOf(1);
+        assertThat(map.get(slot, 0)).isEqualTo(11);
+        assertThat(map.get(slot, 1)).isEqualTo(21);
+        assertThat(map.get(map.indexOf(-1), 0)).isEqualTo(30);
+        assertThat(map.indexOf(2)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("크기가 늘어나도 HashMap 과 같은 결과")
+    public void matchesHashMap() {
+        // given
+        Random random = new Random(42);
+        IntLongArrayMap map = new IntLongArrayMap(2);
+        Map<Integer, long[]> expected = new HashMap<>();
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            int key = random.nextInt(5_000);
+            long first = random.nextLong();
+            long second = random.nextLong();
+            map.put(key, first, second);
+            expected.put(key, new long[]{first, second});
+        }
+
+        // then
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (int key = 0; key < 5_000; key++) {
+            int slot = map.indexOf(key);
+            long[] values = expected.get(key);
+            if (values == null) {
+                assertThat(slot).isEqualTo(-1);
+            } else {
+                assertThat(map.get(slot, 0)).isEqualTo(values[0]);
+                assertThat(map.get(slot, 1)).isEqualTo(values[1]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("width 와 다른 개수의 값을 저장하면 예외")
+    public void putWrongWidth() {
+        // given
+        IntLongArrayMap map = new IntLongArrayMap(3);
+
+        // when & then
+        assertThatThrownBy(() -> map.put(1, 10, 20))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(map.size()).isZero();
+    }
+}
@@ -0,0 +1,77 @@
+package me.kirok.restapi.commons;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class IntervalTreeTest {
+
+    @Test
+    @DisplayName("겹치는 구간만 start 순서로 조회")
+    public void queryOverlaps() {
+        // given
+        IntervalTree tree = new IntervalTree();
+        tree.insert(10, 20, 1);
+        tree.insert(15, 30, 2);
+        tree.insert(31, 40, 3);
+        tree.insert(0, 5, 4);
+
+        // when
+        List<Integer> atInstant = query(tree, 18, 18);
+        List<Integer> window = query(tree, 25, 35);
+        List<Integer> none = query(tree, 6, 9);
+
+        // then
+        assertThat(atInstant).containsExactly(1, 2);
+        assertThat(window).containsExactly(2, 3);
+        assertThat(none).isEmpty();
+    }
+
+    @Test
+    @DisplayName("무작위 삽입/삭제 후에도 전수 비교와 같은 결과")
+    public void matchesBruteForce() {
+        // given
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        Map<Integer, long[]> expected = new HashMap<>();
+        for (int id = 0; id < 5_000; id++) {
+            long start = random.nextInt(100_000);
+            long end = start + random.nextInt(5_000);
+            tree.insert(start, end, id);
+            expected.put(id, new long[]{start, end});
+        }
+        for (int id = 0; id < 5_000; id += 3) {
+            assertThat(tree.remove(expected.remove(id)[0], id)).isTrue();
+        }
+        assertThat(tree.size()).isEqualTo(expected.size());
+
+        for (int i = 0; i < 200; i++) {
+            long from = random.nextInt(105_000);
+            long to = from + random.nextInt(2_000);
+
+            // when
+            List<Integer> actual = query(tree, from, to);
+
+            // then
+            List<Integer> bruteForce = new ArrayList<>();
+            expected.forEach((id, interval) -> {
+                if (interval[0] <= to && interval[1] >= from) {
+                    bruteForce.add(id);
+                }
+            });
+            assertThat(actual).containsExactlyInAnyOrderElementsOf(bruteForce);
+        }
+    }
+
+    private List<Integer> query(IntervalTree tree, long from, long to) {
+        List<Integer> values = new ArrayList<>();
+        tree.query(from, to, (start, end, value) -> values.add(value));
+        return values;
+    }
+}
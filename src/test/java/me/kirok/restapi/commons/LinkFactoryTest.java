@@ -0,0 +1,64 @@
+package me.kirok.restapi.commons;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import me.kirok.restapi.events.EventController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class LinkFactoryTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("요청의 호스트로 기준 URI 를 한 번 만들고 요청 안에서 재사용")
+    public void requestBasedLinks() {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        request.setScheme("https");
+        request.setServerName("api.example.com");
+        request.setServerPort(443);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        LinkFactory linkFactory = new LinkFactory("", "");
+
+        // when
+        Link self = linkFactory.self(EventController.class, 10);
+        Link profile = linkFactory.profile("resources-events-get");
+
+        // then
+        assertThat(self.getHref()).isEqualTo("https://api.example.com/api/events/10");
+        assertThat(self.getRel()).isEqualTo(IanaLinkRelations.SELF);
+        assertThat(profile.getHref())
+            .isEqualTo("https://api.example.com/docs/index.html#resources-events-get");
+        assertThat(linkFactory.base(EventController.class))
+            .isSameAs(linkFactory.base(EventController.class));
+    }
+
+    @Test
+    @DisplayName("links.base-uri, links.profile-base 를 설정하면 요청과 상관없이 사용")
+    public void configuredLinks() {
+        // given
+        LinkFactory linkFactory = new LinkFactory("http://api.example.com/",
+            "https://docs.example.com/index.html");
+
+        // when
+        Link item = linkFactory.item(EventController.class, 3, "event");
+        Link profile = linkFactory.profile(null);
+
+        // then
+        assertThat(item.getHref()).isEqualTo("http://api.example.com/api/events/3");
+        assertThat(item.getRel().value()).isEqualTo("event");
+        assertThat(profile.getHref()).isEqualTo("https://docs.example.com/index.html");
+        assertThat(linkFactory.collection(EventController.class, "events").getHref())
+            .isEqualTo("http://api.example.com/api/events");
+    }
+}
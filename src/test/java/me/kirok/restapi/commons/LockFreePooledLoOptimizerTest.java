@@ -0,0 +1,96 @@
+package me.kirok.restapi.commons;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LockFreePooledLoOptimizerTest {
+
+    @Test
+    @DisplayName("블록 안에서는 시퀀스를 다시 읽지 않고 연속된 ID를 발급")
+    public void generateWithinBlock() {
+        // given
+        CountingSequence sequence = new CountingSequence(50);
+        LockFreePooledLoOptimizer optimizer = new LockFreePooledLoOptimizer(Integer.class, 50);
+
+        // when
+        List<Serializable> ids = IntStream.range(0, 51)
+            .mapToObj(i -> optimizer.generate(sequence))
+            .collect(Collectors.toList());
+
+        // then
+        assertThat(ids.get(0)).isEqualTo(1);
+        assertThat(ids.get(49)).isEqualTo(50);
+        assertThat(ids.get(50)).isEqualTo(51);
+        assertThat(sequence.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 발급해도 ID가 중복되지 않음")
+    public void generateConcurrently() throws Exception {
+        // given
+        CountingSequence sequence = new CountingSequence(10);
+        LockFreePooledLoOptimizer optimizer = new LockFreePooledLoOptimizer(Integer.class, 10);
+        Set<Serializable> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // when
+        Callable<Void> task = () -> {
+            for (int i = 0; i < perThread; i++) {
+                ids.add(optimizer.generate(sequence));
+            }
+            return null;
+        };
+        List<Future<Void>> futures = executor.invokeAll(
+            IntStream.range(0, threads).mapToObj(i -> task).collect(Collectors.toList()));
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(ids).hasSize(threads * perThread);
+    }
+
+    private static class CountingSequence implements AccessCallback {
+
+        private final int incrementSize;
+        private final AtomicInteger calls = new AtomicInteger();
+        private long next = 1;
+
+        private CountingSequence(int incrementSize) {
+            this.incrementSize = incrementSize;
+        }
+
+        @Override
+        public synchronized IntegralDataTypeHolder getNextValue() {
+            this.calls.incrementAndGet();
+            long value = this.next;
+            this.next += this.incrementSize;
+            return IdentifierGeneratorHelper.getIntegralDataTypeHolder(Integer.class)
+                .initialize(value);
+        }
+
+        @Override
+        public String getTenantIdentifier() {
+            return null;
+        }
+    }
+}
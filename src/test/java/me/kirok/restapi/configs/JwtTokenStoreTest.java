@@ -0,0 +1,63 @@
+package me.kirok.restapi.configs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+    "security.token.store=jwt",
+    "security.token.jwt.signing-key=test-signing-key"
+})
+@ActiveProfiles("test")
+class JwtTokenStoreTest {
+
+    @Autowired
+    TokenStore tokenStore;
+
+    @Autowired
+    JwtAccessTokenConverter jwtAccessTokenConverter;
+
+    @Test
+    @DisplayName("jwt 모드에서 발급한 토큰을 저장소 조회 없이 검증")
+    public void issueAndLoadAuthentication() {
+        // given
+        DefaultTokenServices tokenServices = new DefaultTokenServices();
+        tokenServices.setTokenStore(this.tokenStore);
+        tokenServices.setTokenEnhancer(this.jwtAccessTokenConverter);
+        tokenServices.setSupportRefreshToken(true);
+
+        OAuth2Request request = new OAuth2Request(Map.of(), "myApp",
+            AuthorityUtils.createAuthorityList("ROLE_ADMIN"), true, Set.of("all"), Set.of(), null,
+            Set.of(), Map.of());
+        UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken(
+            "keesun@email.com", "N/A", AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+        // when
+        OAuth2AccessToken accessToken = tokenServices
+            .createAccessToken(new OAuth2Authentication(request, user));
+        OAuth2Authentication authentication = tokenServices
+            .loadAuthentication(accessToken.getValue());
+
+        // then
+        assertThat(this.tokenStore).isInstanceOf(JwtTokenStore.class);
+        assertThat(accessToken.getValue().split("\\.")).hasSize(3);
+        assertThat(accessToken.getRefreshToken()).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("keesun@email.com");
+        assertThat(authentication.getOAuth2Request().getClientId()).isEqualTo("myApp");
+    }
+}
@@ -0,0 +1,182 @@
+package me.kirok.restapi.configs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+import me.kirok.restapi.commons.DataSourceRouting;
+import me.kirok.restapi.commons.ETags;
+import me.kirok.restapi.commons.ReadWriteRoutingDataSource;
+import me.kirok.restapi.commons.ReadYourWritesFilter;
+import me.kirok.restapi.events.Event;
+import me.kirok.restapi.events.EventDto;
+import me.kirok.restapi.events.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * 서로 다른 H2 메모리 데이터베이스 두 개를 primary 와 replica 로 사용한다.
+ * replica 에는 복사한 시점까지의 데이터만 있으므로 복사 후 primary 에 쓴 내용은 replica 에서 보이지 않는다.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "datasource.replica.urls=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+    "datasource.read-your-writes.window-ms=60000"
+})
+@ActiveProfiles("test")
+class ReadWriteRoutingTest {
+
+    @Autowired
+    ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    ReadYourWritesFilter readYourWritesFilter;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    WebApplicationContext ctx;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void copySchemaToReplica() {
+        replicate("SCRIPT NODATA");
+    }
+
+    @Test
+    @DisplayName("읽기 전용 트랜잭션은 replica, 쓰기와 primary 고정 구간은 primary 로 보낸다")
+    public void routeByTransaction() {
+        // given
+        Event event = this.eventRepository.save(Event.builder()
+            .name("routing")
+            .beginEnrollmentDateTime(LocalDateTime.of(2021, 7, 30, 21, 21))
+            .build());
+
+        // when
+        boolean foundOnReplica = this.eventRepository.findById(event.getId()).isPresent();
+        boolean foundOnPrimary = DataSourceRouting.callOnPrimary(
+            () -> this.eventRepository.findById(event.getId()).isPresent());
+
+        // then
+        assertThat(foundOnReplica).isFalse();
+        assertThat(foundOnPrimary).isTrue();
+    }
+
+    @Test
+    @DisplayName("캐시 미스에서는 지연된 replica 의 옛 행 대신 primary 의 행을 읽어 캐싱한다")
+    public void cacheLoadsFromPrimary() throws Exception {
+        // given
+        Event event = this.eventRepository.save(Event.builder()
+            .name("before")
+            .beginEnrollmentDateTime(LocalDateTime.of(2021, 7, 30, 21, 21))
+            .build());
+        replicate("SCRIPT");
+        Event updated = DataSourceRouting.callOnPrimary(
+            () -> this.eventRepository.findById(event.getId()).orElseThrow());
+        updated.setName("after");
+        updated = this.eventRepository.save(updated);
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(this.ctx)
+            .addFilters(this.readYourWritesFilter)
+            .build();
+
+        // when
+        boolean staleOnReplica = this.eventRepository.findById(event.getId())
+            .map(e -> e.getName().equals("before"))
+            .orElse(false);
+
+        // then
+        assertThat(staleOnReplica).isTrue();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.of(updated.getVersion())))
+                .andExpect(jsonPath("name").value("after"));
+        }
+    }
+
+    @Test
+    @DisplayName("이벤트를 만든 클라이언트는 쿠키의 기간 동안 primary 에서 읽는다")
+    public void readYourWrites() throws Exception {
+        // given
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(this.ctx)
+            .addFilters(this.readYourWritesFilter)
+            .build();
+        EventDto eventDto = EventDto.builder()
+            .name("Spring")
+            .description("REST API Development with Spring")
+            .beginEnrollmentDateTime(LocalDateTime.of(2021, 7, 30, 21, 21))
+            .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 30, 21, 21))
+            .beginEventDateTime(LocalDateTime.of(2021, 9, 1, 21, 21))
+            .endEventDateTime(LocalDateTime.of(2021, 9, 2, 21, 21))
+            .basePrice(100)
+            .maxPrice(200)
+            .limitOfEnrollment(100)
+            .location("강남")
+            .build();
+
+        // when
+        MvcResult created = mockMvc.perform(post("/api/events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON)
+                .content(this.objectMapper.writeValueAsString(eventDto)))
+            .andExpect(status().isCreated())
+            .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE_NAME))
+            .andReturn();
+        Integer id = this.objectMapper.readTree(created.getResponse().getContentAsByteArray())
+            .get("id").asInt();
+        Cookie pin = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+
+        // then
+        mockMvc.perform(get("/api/events/{id}", id))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/events"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("page.totalElements").value(0));
+        mockMvc.perform(get("/api/events").cookie(pin))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventList[*].id", hasItem(id)));
+    }
+
+    /**
+     * primary 의 스크립트를 replica 에서 실행해서 replica 를 그 시점의 primary 로 만든다.
+     */
+    private void replicate(String script) {
+        Map<Object, DataSource> dataSources = this.routingDataSource.getResolvedDataSources();
+        JdbcTemplate primary = new JdbcTemplate(dataSources.get("primary"));
+        JdbcTemplate replica = new JdbcTemplate(dataSources.get("replica-0"));
+
+        List<String> statements = primary.queryForList(script, String.class).stream()
+            .filter(statement -> !statement.startsWith("--"))
+            .collect(Collectors.toList());
+        replica.execute("DROP ALL OBJECTS");
+        statements.forEach(replica::execute);
+    }
+}
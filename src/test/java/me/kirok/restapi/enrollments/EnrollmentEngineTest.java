@@ -0,0 +1,235 @@
+package me.kirok.restapi.enrollments;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.EntityManagerFactory;
+import me.kirok.restapi.enrollments.EnrollmentEngine.EnrollmentResult;
+import me.kirok.restapi.enrollments.EnrollmentEngine.Status;
+import me.kirok.restapi.events.Event;
+import me.kirok.restapi.events.EventRepository;
+import me.kirok.restapi.events.EventStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EnrollmentEngineTest {
+
+    private static final String USERNAME = "user@email.com";
+
+    @Autowired
+    EnrollmentEngine enrollmentEngine;
+
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("동시에 정원보다 많은 신청이 들어와도 정원만큼만 수락하고 모두 저장")
+    public void enroll_Concurrently() throws Exception {
+        // given
+        Event event = this.eventRepository.save(openEvent("popular event", 100));
+        int threads = 32;
+        int attemptsPerThread = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<Status, AtomicInteger> counts = new ConcurrentHashMap<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    EnrollmentResult result = this.enrollmentEngine
+                        .enroll(event.getId(), "user" + thread + "-" + i + "@email.com");
+                    counts.computeIfAbsent(result.getStatus(), s -> new AtomicInteger())
+                        .incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        this.enrollmentEngine.flush();
+
+        // then
+        assertThat(counts.get(Status.ACCEPTED)).hasValue(100);
+        assertThat(counts.get(Status.FULL)).hasValue(threads * attemptsPerThread - 100);
+        assertThat(this.enrollmentRepository.countByEventId(event.getId())).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("정원을 늘리면 늘어난 만큼 더 받고, 없는 이벤트는 NOT_FOUND")
+    public void enroll_UpdateLimit() {
+        // given
+        Event event = this.eventRepository.save(openEvent("small event", 1));
+        assertThat(this.enrollmentEngine.enroll(event.getId(), "a@email.com").getStatus())
+            .isEqualTo(Status.ACCEPTED);
+        assertThat(this.enrollmentEngine.enroll(event.getId(), "b@email.com").getStatus())
+            .isEqualTo(Status.FULL);
+
+        // when
+        event.setLimitOfEnrollment(2);
+        this.enrollmentEngine.update(event);
+
+        // then: 정원이 차서 받지 못한 사용자는 다시 신청할 수 있다.
+        EnrollmentResult result = this.enrollmentEngine.enroll(event.getId(), "b@email.com");
+        assertThat(result.getStatus()).isEqualTo(Status.ACCEPTED);
+        assertThat(result.getRemaining()).isZero();
+        assertThat(this.enrollmentEngine.enroll(-1, "a@email.com").getStatus())
+            .isEqualTo(Status.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("이미 반영한 것보다 오래된 version 의 수정은 무시")
+    public void enroll_StaleUpdate() {
+        // given
+        Event event = this.eventRepository.save(openEvent("versioned event", 1));
+        assertThat(this.enrollmentEngine.enroll(event.getId(), "a@email.com").getStatus())
+            .isEqualTo(Status.ACCEPTED);
+        event.setLimitOfEnrollment(3);
+        Event saved = this.eventRepository.save(event);
+        this.enrollmentEngine.update(saved);
+
+        // when: 먼저 저장된 version 의 수정이 늦게 도착한다.
+        event.setLimitOfEnrollment(1);
+        this.enrollmentEngine.update(event);
+
+        // then
+        assertThat(event.getVersion()).isLessThan(saved.getVersion());
+        assertThat(this.enrollmentEngine.enroll(event.getId(), "b@email.com").getStatus())
+            .isEqualTo(Status.ACCEPTED);
+        EnrollmentResult result = this.enrollmentEngine.enroll(event.getId(), "c@email.com");
+        assertThat(result.getStatus()).isEqualTo(Status.ACCEPTED);
+        assertThat(result.getRemaining()).isZero();
+    }
+
+    @Test
+    @DisplayName("공개되지 않았거나 모집 기간이 아닌 이벤트는 CLOSED, 수정으로 열리면 받는다")
+    public void enroll_Closed() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        Event draft = this.eventRepository.save(Event.builder()
+            .name("draft event")
+            .limitOfEnrollment(10)
+            .eventStatus(EventStatus.DRAFT)
+            .beginEnrollmentDateTime(now.minusDays(1))
+            .closeEnrollmentDateTime(now.plusDays(1))
+            .build());
+        Event notYet = openEvent("upcoming event", 10);
+        notYet.setBeginEnrollmentDateTime(now.plusDays(1));
+        notYet.setCloseEnrollmentDateTime(now.plusDays(2));
+        notYet = this.eventRepository.save(notYet);
+        Event closed = openEvent("closed event", 10);
+        closed.setBeginEnrollmentDateTime(now.minusDays(2));
+        closed.setCloseEnrollmentDateTime(now.minusDays(1));
+        closed = this.eventRepository.save(closed);
+
+        // when
+        Status draftStatus = this.enrollmentEngine.enroll(draft.getId(), USERNAME).getStatus();
+        Status notYetStatus = this.enrollmentEngine.enroll(notYet.getId(), USERNAME).getStatus();
+        Status closedStatus = this.enrollmentEngine.enroll(closed.getId(), USERNAME).getStatus();
+        draft.setEventStatus(EventStatus.PUBLISHED);
+        this.enrollmentEngine.update(draft);
+
+        // then
+        assertThat(draftStatus).isEqualTo(Status.CLOSED);
+        assertThat(notYetStatus).isEqualTo(Status.CLOSED);
+        assertThat(closedStatus).isEqualTo(Status.CLOSED);
+        assertThat(this.enrollmentEngine.enroll(draft.getId(), USERNAME).getStatus())
+            .isEqualTo(Status.ACCEPTED);
+    }
+
+    @Test
+    @DisplayName("같은 사용자가 다시 신청하면 DUPLICATE, 신청 시각은 모집 기간과 같은 시간대로 저장")
+    public void enroll_Duplicate() throws Exception {
+        // given
+        LocalDateTime before = LocalDateTime.now().withNano(0);
+        Event event = this.eventRepository.save(openEvent("duplicate event", 10));
+        assertThat(this.enrollmentEngine.enroll(event.getId(), USERNAME).getStatus())
+            .isEqualTo(Status.ACCEPTED);
+
+        // when
+        EnrollmentResult again = this.enrollmentEngine.enroll(event.getId(), USERNAME);
+        this.enrollmentEngine.flush();
+
+        // then
+        assertThat(again.getStatus()).isEqualTo(Status.DUPLICATE);
+        assertThat(again.getRemaining()).isEqualTo(9);
+        assertThat(this.enrollmentRepository.findUsernamesByEventId(event.getId()))
+            .containsExactly(USERNAME);
+        Enrollment enrollment = this.enrollmentRepository.findAll().stream()
+            .filter(e -> e.getEventId().equals(event.getId()))
+            .findFirst().orElseThrow();
+        assertThat(enrollment.getEnrolledAt()).isBetween(before, LocalDateTime.now());
+
+    @Test
+    @DisplayName("처음 신청이 동시에 몰려도 카운터는 한 번만 읽음")
+    public void enroll_LoadOnce() throws Exception {
+        // given
+        Event event = this.eventRepository.save(openEvent("opening event", 1000));
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+            .getStatistics();
+        statistics.clear();
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<EnrollmentResult>> futures = new ArrayList<>();
+
+        // when
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return this.enrollmentEngine.enroll(event.getId(), "user" + thread + "@email.com");
+            }));
+        }
+        start.countDown();
+        for (Future<EnrollmentResult> future : futures) {
+            assertThat(future.get(30, TimeUnit.SECONDS).getStatus()).isEqualTo(Status.ACCEPTED);
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(statistics.getEntityStatistics(Event.class.getName()).getLoadCount())
+            .isEqualTo(1);
+    }
+
+    private Event openEvent(String name, int limitOfEnrollment) {
+        LocalDateTime now = LocalDateTime.now();
+        return Event.builder()
+            .name(name)
+            .limitOfEnrollment(limitOfEnrollment)
+            .eventStatus(EventStatus.BEGAN_ENROLLMENT)
+            .beginEnrollmentDateTime(now.minusDays(1))
+            .closeEnrollmentDateTime(now.plusDays(1))
+            .build();
+    }
+}
@@ -0,0 +1,87 @@
+package me.kirok.restapi.enrollments;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import me.kirok.restapi.enrollments.EnrollmentLog.Entry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EnrollmentLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("fsync 된 레코드를 다시 읽고, 잘린 꼬리는 무시")
+    public void appendAndRead() throws Exception {
+        // given
+        Path path = this.tempDir.resolve("enrollments.log");
+        List<Entry> durable = new CopyOnWriteArrayList<>();
+        Entry first = new Entry(UUID.randomUUID(), 1, 1_000L, "user@email.com");
+        Entry second = new Entry(UUID.randomUUID(), 2, 2_000L, null);
+
+        // when
+        try (EnrollmentLog enrollmentLog = new EnrollmentLog(path, durable::addAll)) {
+            enrollmentLog.append(first).get();
+            enrollmentLog.append(second).get();
+        }
+        Path segment = EnrollmentLog.segments(path).get(0);
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        // then
+        assertThat(durable).containsExactly(first, second);
+        List<Entry> entries = EnrollmentLog.read(segment);
+        assertThat(entries).hasSize(1);
+        assertThat(entries.get(0).getReference()).isEqualTo(first.getReference());
+        assertThat(entries.get(0).getEventId()).isEqualTo(1);
+        assertThat(entries.get(0).getEnrolledAtMillis()).isEqualTo(1_000L);
+        assertThat(entries.get(0).getUsername()).isEqualTo("user@email.com");
+    }
+
+    @Test
+    @DisplayName("세그먼트를 바꾸면 이전 세그먼트만 지우고 이후 기록은 남긴다")
+    public void rotateAndDeleteSealed() throws Exception {
+        // given
+        Path path = this.tempDir.resolve("enrollments.log");
+        Entry before = new Entry(UUID.randomUUID(), 1, 1_000L, null);
+        Entry after = new Entry(UUID.randomUUID(), 2, 2_000L, null);
+        List<Entry> durable = new CopyOnWriteArrayList<>();
+        try (EnrollmentLog enrollmentLog = new EnrollmentLog(path, durable::addAll)) {
+            enrollmentLog.append(before).get();
+
+            // when
+            int handedOff = enrollmentLog.rotate(durable::size);
+            enrollmentLog.append(after).get();
+            enrollmentLog.deleteSealed();
+
+            // then
+            assertThat(handedOff).isEqualTo(1);
+            List<Path> segments = EnrollmentLog.segments(path);
+            assertThat(segments).hasSize(1);
+            assertThat(segments.get(0).getFileName().toString()).isEqualTo("enrollments.log.2");
+            assertThat(EnrollmentLog.read(segments.get(0)))
+                .extracting(Entry::getReference)
+                .containsExactly(after.getReference());
+        }
+
+        // 다시 열면 남은 세그먼트 다음 번호부터 쓴다.
+        try (EnrollmentLog enrollmentLog = new EnrollmentLog(path, entries -> {
+        })) {
+            enrollmentLog.append(before).get();
+        }
+        assertThat(EnrollmentLog.segments(path))
+            .extracting(segment -> segment.getFileName().toString())
+            .containsExactly("enrollments.log.2", "enrollments.log.3");
+    }
+}
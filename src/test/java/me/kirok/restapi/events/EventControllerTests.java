@@ -1,5 +1,7 @@
 package me.kirok.restapi.events;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.restdocs.headers.HeaderDocumentation.headerWithName;
 import static org.springframework.restdocs.headers.HeaderDocumentation.requestHeaders;
 import static org.springframework.restdocs.headers.HeaderDocumentation.responseHeaders;
@@ -9,16 +11,35 @@ import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.docu
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
 import static org.springframework.restdocs.payload.PayloadDocumentation.relaxedResponseFields;
 import static org.springframework.restdocs.payload.PayloadDocumentation.requestFields;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jayway.jsonpath.JsonPath;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import javax.persistence.EntityManagerFactory;
+import me.kirok.restapi.accounts.Account;
+import me.kirok.restapi.accounts.AccountRepository;
+import me.kirok.restapi.accounts.AccountRole;
 import me.kirok.restapi.common.BaseControllerTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,7 +50,9 @@ import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.restdocs.RestDocumentationExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MvcResult;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -40,6 +63,12 @@ public class EventControllerTests extends BaseControllerTest {
     @Autowired
     EventRepository eventRepository;
 
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
 
     @Test
     @DisplayName("이벤트를 정상적으로 생성하고 created를 반환")
@@ -134,6 +163,68 @@ public class EventControllerTests extends BaseControllerTest {
 
     }
 
+    @Test
+    @DisplayName("같은 Idempotency-Key 로 다시 보낸 요청은 처음 응답을 재전송")
+    public void createEvent_Idempotency_Key() throws Exception {
+        // given
+        EventDto eventDto = EventDto.builder()
+            .name("idempotent")
+            .description("rest api")
+            .beginEnrollmentDateTime(LocalDateTime.of(2021, 7, 30, 21, 21))
+            .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 30, 21, 21))
+            .beginEventDateTime(LocalDateTime.of(2021, 9, 1, 21, 21))
+            .endEventDateTime(LocalDateTime.of(2021, 9, 2, 21, 21))
+            .basePrice(100)
+            .maxPrice(200)
+            .limitOfEnrollment(100)
+            .location("강남")
+            .build();
+        String content = objectMapper.writeValueAsString(eventDto);
+        long before = eventRepository.count();
+        Principal manager = new UsernamePasswordAuthenticationToken("manager@email.com", "N/A");
+
+        // when
+        MvcResult first = mockMvc.perform(post("/api/events/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON)
+                .header("Idempotency-Key", "create-idempotent")
+                .principal(manager)
+                .content(content))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist("Idempotent-Replayed"))
+            .andReturn();
+
+        // then
+        mockMvc.perform(post("/api/events/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON)
+                .header("Idempotency-Key", "create-idempotent")
+                .principal(manager)
+                .content(content))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andExpect(header().string(HttpHeaders.LOCATION,
+                first.getResponse().getHeader(HttpHeaders.LOCATION)))
+            .andExpect(content().bytes(first.getResponse().getContentAsByteArray()));
+        assertThat(eventRepository.count()).isEqualTo(before + 1);
+
+        mockMvc.perform(post("/api/events/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON)
+                .header("Idempotency-Key", "create-idempotent")
+                .principal(manager)
+                .content(content.replace("idempotent", "changed")))
+            .andExpect(status().isUnprocessableEntity());
+
+        // 익명 요청은 키를 구분할 수 없으므로 거절한다.
+        mockMvc.perform(post("/api/events/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON)
+                .header("Idempotency-Key", "create-idempotent")
+                .content(content))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("DTO에 없는 속성을 입력했을 경우에 bad request를 반환")
     public void createEvent_Bad_Request() throws Exception {
@@ -236,6 +327,171 @@ public class EventControllerTests extends BaseControllerTest {
     }
 
 
+    @Test
+    @DisplayName("이벤트 여러개를 한번에 생성하고 created를 반환")
+    public void createEvents() throws Exception {
+        List<EventDto> eventDtos = IntStream.range(0, 3)
+            .mapToObj(this::generateEventDto)
+            .collect(Collectors.toList());
+
+        this.mockMvc.perform(
+            post("/api/events/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON_VALUE)
+                .content(objectMapper.writeValueAsString(eventDtos))
+        )
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("_embedded.eventList.length()").value(3))
+            .andExpect(jsonPath("_embedded.eventList[0].id").exists())
+            .andExpect(jsonPath("_embedded.eventList[0].free").value(false))
+            .andExpect(jsonPath("_embedded.eventList[2]._links.self").exists())
+            .andExpect(jsonPath("_links.query-events").exists())
+            .andExpect(jsonPath("_links.profile").exists())
+            .andDo(document("create-events-batch"))
+        ;
+    }
+
+    @Test
+    @DisplayName("일괄 생성 시 잘못된 항목이 있으면 항목별 오류와 bad request를 반환")
+    public void createEvents_Bad_Request_Wrong_Input() throws Exception {
+        long countBefore = this.eventRepository.count();
+        EventDto wrongEventDto = this.generateEventDto(1);
+        wrongEventDto.setBasePrice(10000);
+        List<EventDto> eventDtos = List.of(this.generateEventDto(0), wrongEventDto);
+
+        this.mockMvc.perform(
+            post("/api/events/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDtos))
+        )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("errors.length()").value(1))
+            .andExpect(jsonPath("errors[0].index").value(1))
+            .andExpect(jsonPath("errors[0].errors[0].code").value("wrongPrices"))
+            .andExpect(jsonPath("_links.index").exists())
+        ;
+
+        assertThat(this.eventRepository.count()).isEqualTo(countBefore);
+    }
+
+    @Test
+    @DisplayName("NDJSON으로 이벤트를 가져오고 잘못된 행은 행별 오류로 반환")
+    public void importEvents_Ndjson() throws Exception {
+        // given
+        EventDto wrongEventDto = this.generateEventDto(1);
+        wrongEventDto.setBasePrice(10000);
+        String body = String.join("\n",
+            objectMapper.writeValueAsString(this.generateEventDto(0)),
+            objectMapper.writeValueAsString(wrongEventDto),
+            "{ not json",
+            objectMapper.writeValueAsString(this.generateEventDto(3)));
+        long countBefore = this.eventRepository.count();
+
+        // when
+        String response = this.mockMvc.perform(
+            post("/api/events/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        // then
+        String[] lines = response.split("\n");
+        assertThat(lines).hasSize(4);
+        assertThat(objectMapper.readTree(lines[0]).get("type").asText()).isEqualTo("error");
+        assertThat(objectMapper.readTree(lines[0]).get("index").asLong()).isEqualTo(2);
+        assertThat(objectMapper.readTree(lines[1]).get("index").asLong()).isEqualTo(3);
+        assertThat(objectMapper.readTree(lines[2]).get("type").asText()).isEqualTo("progress");
+        assertThat(objectMapper.readTree(lines[3]).get("type").asText()).isEqualTo("done");
+        assertThat(objectMapper.readTree(lines[3]).get("imported").asLong()).isEqualTo(2);
+        assertThat(objectMapper.readTree(lines[3]).get("failed").asLong()).isEqualTo(2);
+        assertThat(this.eventRepository.count()).isEqualTo(countBefore + 2);
+    }
+
+    @Test
+    @DisplayName("가져오기의 행 번호는 빈 줄도 센다")
+    public void importEvents_Blank_Lines() throws Exception {
+        // given
+        String body = String.join("\n",
+            objectMapper.writeValueAsString(this.generateEventDto(0)),
+            "",
+            "   ",
+            "{ not json");
+
+        // when
+        String response = this.mockMvc.perform(
+            post("/api/events/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        // then
+        JsonNode error = objectMapper.readTree(response.split("\n")[0]);
+        assertThat(error.get("type").asText()).isEqualTo("error");
+        assertThat(error.get("index").asLong()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("chunk 를 저장하지 못하면 진행 상황을 담은 error 줄로 끝남")
+    public void importEvents_Save_Failure() throws Exception {
+        // given: 검증은 통과하지만 컬럼 길이를 넘는 이름
+        EventDto tooLongName = this.generateEventDto(1);
+        tooLongName.setName("x".repeat(1000));
+        String body = String.join("\n",
+            objectMapper.writeValueAsString(this.generateEventDto(0)),
+            objectMapper.writeValueAsString(tooLongName));
+        long countBefore = this.eventRepository.count();
+
+        // when
+        String response = this.mockMvc.perform(
+            post("/api/events/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        // then
+        String[] lines = response.split("\n");
+        JsonNode last = objectMapper.readTree(lines[lines.length - 1]);
+        assertThat(last.get("type").asText()).isEqualTo("error");
+        assertThat(last.get("read").asLong()).isEqualTo(2);
+        assertThat(last.get("imported").asLong()).isEqualTo(0);
+        assertThat(last.get("failed").asLong()).isEqualTo(2);
+        assertThat(last.get("message").asText()).isNotEmpty();
+        assertThat(response).doesNotContain("\"done\"");
+        assertThat(this.eventRepository.count()).isEqualTo(countBefore);
+    }
+
+    @Test
+    @DisplayName("CSV로 이벤트 가져오기")
+    public void importEvents_Csv() throws Exception {
+        // given
+        String body = String.join("\n",
+            "name,description,beginEnrollmentDateTime,closeEnrollmentDateTime,"
+                + "beginEventDateTime,endEventDateTime,location,basePrice,maxPrice,"
+                + "limitOfEnrollment",
+            "csv event,\"rest api, csv\",2021-07-30T21:21:00,2021-08-30T21:21:00,"
+                + "2021-09-01T21:21:00,2021-09-02T21:21:00,강남,100,200,100",
+            "online event,rest api,2021-07-30T21:21:00,2021-08-30T21:21:00,"
+                + "2021-09-01T21:21:00,2021-09-02T21:21:00,,0,0,100");
+
+        // when
+        String response = this.mockMvc.perform(
+            post("/api/events/import")
+                .contentType("text/csv")
+                .content(body.getBytes(StandardCharsets.UTF_8)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        // then
+        String[] lines = response.split("\n");
+        JsonNode done = objectMapper.readTree(lines[lines.length - 1]);
+        assertThat(done.get("type").asText()).isEqualTo("done");
+        assertThat(done.get("imported").asLong()).isEqualTo(2);
+        assertThat(done.get("failed").asLong()).isEqualTo(0);
+    }
+
     @Test
     @DisplayName("30개의 이벤트를 10개씩(리스트) 두번쨰 페이지 조회하기")
     public void queryEvents() throws Exception {
@@ -257,6 +513,373 @@ public class EventControllerTests extends BaseControllerTest {
         ;
     }
 
+    @Test
+    @DisplayName("목록 조회는 manager 를 로딩하지 않고 페이지당 SQL 두 번(목록, COUNT)만 실행")
+    public void queryEvents_Statement_Count() throws Exception {
+        // Given
+        Account manager = this.accountRepository.save(Account.builder()
+            .email("manager-list@email.com")
+            .password("pass")
+            .roles(Set.of(AccountRole.ADMIN, AccountRole.USER))
+            .build());
+        IntStream.range(0, 30).forEach(i -> {
+            Event event = this.generateEvent(i);
+            event.setManager(manager);
+            this.eventRepository.save(event);
+        });
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+            .getStatistics();
+        statistics.clear();
+
+        // when
+        this.mockMvc.perform(
+            get("/api/events")
+                .param("page", "1")
+                .param("size", "10")
+                .param("sort", "id,DESC"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+            .andExpect(jsonPath("_embedded.eventList[0].managerId").value(manager.getId()))
+            .andExpect(jsonPath("_embedded.eventList[0].manager").doesNotExist());
+
+        // then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("상태, 날짜 범위, 무료 여부, 가격, 관리자 조건으로 이벤트 검색하기")
+    public void searchEvents() throws Exception {
+        // Given
+        Account manager = this.accountRepository.save(Account.builder()
+            .email("manager-search@email.com")
+            .password("pass")
+            .roles(Set.of(AccountRole.USER))
+            .build());
+        IntStream.range(0, 5).forEach(i -> {
+            Event event = this.generateEvent(i);
+            event.setManager(manager);
+            event.setEventStatus(i % 2 == 0 ? EventStatus.PUBLISHED : EventStatus.DRAFT);
+            this.eventRepository.save(event);
+        });
+
+        // when & then
+        this.mockMvc.perform(
+            get("/api/events/search")
+                .param("eventStatus", "PUBLISHED")
+                .param("beginEventFrom", "2021-09-01T00:00:00")
+                .param("beginEventTo", "2021-09-08T00:00:00")
+                .param("free", "false")
+                .param("offline", "true")
+                .param("basePriceMin", "100")
+                .param("basePriceMax", "200")
+                .param("managerId", String.valueOf(manager.getId()))
+                .param("size", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventList.length()").value(3))
+            .andExpect(jsonPath("_embedded.eventList[0].eventStatus").value("PUBLISHED"))
+            .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+            .andExpect(jsonPath("page.totalElements").value(3))
+            .andExpect(jsonPath("_links.self").exists())
+            .andExpect(jsonPath("_links.profile").exists())
+            .andDo(document("search-events"))
+        ;
+    }
+
+    @Test
+    @DisplayName("생성/수정한 이벤트를 name, description 으로 전문 검색하기")
+    public void searchEventsByText() throws Exception {
+        // Given
+        EventDto workshop = generateEventDto(0);
+        workshop.setName("Spring Batch workshop");
+        workshop.setDescription("chunk oriented processing");
+        EventDto meetup = generateEventDto(1);
+        meetup.setName("JPA meetup");
+        meetup.setDescription("batch insert and workshop retrospective");
+        String location = this.mockMvc.perform(post("/api/events")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(this.objectMapper.writeValueAsString(workshop)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        this.mockMvc.perform(post("/api/events")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(this.objectMapper.writeValueAsString(meetup)))
+            .andExpect(status().isCreated());
+
+        // when & then: name 일치가 description 일치보다 앞에 온다.
+        this.mockMvc.perform(get("/api/events/search").param("q", "workshop"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventList.length()").value(2))
+            .andExpect(jsonPath("_embedded.eventList[0].name").value("Spring Batch workshop"))
+            .andExpect(jsonPath("_embedded.eventList[1].name").value("JPA meetup"))
+            .andExpect(jsonPath("_links.self").exists())
+            .andExpect(jsonPath("_links.profile").exists())
+            .andDo(document("search-events-text"));
+
+        // when: 수정하면 색인도 바뀐다.
+        workshop.setName("Spring Batch seminar");
+        this.mockMvc.perform(put(URI.create(location).getPath())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(this.objectMapper.writeValueAsString(workshop)))
+            .andExpect(status().isOk());
+
+        // then
+        this.mockMvc.perform(get("/api/events/search").param("q", "seminar"))
+            .andExpect(jsonPath("_embedded.eventList.length()").value(1))
+            .andExpect(jsonPath("_embedded.eventList[0].name").value("Spring Batch seminar"));
+        this.mockMvc.perform(get("/api/events/search").param("q", "workshop"))
+            .andExpect(jsonPath("_embedded.eventList.length()").value(1))
+            .andExpect(jsonPath("_embedded.eventList[0].name").value("JPA meetup"));
+    }
+
+    @Test
+    @DisplayName("전문 검색의 page * size 가 허용 범위를 넘으면 bad request를 반환")
+    public void searchEventsByText_Page_Too_Deep() throws Exception {
+        this.mockMvc.perform(get("/api/events/search")
+                .param("q", "workshop")
+                .param("page", String.valueOf(Integer.MAX_VALUE))
+                .param("size", "100"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("errors[0].code").value("pageTooDeep"))
+        ;
+    }
+
+    @Test
+    @DisplayName("특정 시점에 모집 중이거나 진행 중인 이벤트 조회하기")
+    public void queryEventsByWindow() throws Exception {
+        // Given
+        EventDto eventDto = generateEventDto(0);
+        eventDto.setBeginEnrollmentDateTime(LocalDateTime.of(2030, 1, 1, 0, 0));
+        eventDto.setCloseEnrollmentDateTime(LocalDateTime.of(2030, 1, 31, 0, 0));
+        eventDto.setBeginEventDateTime(LocalDateTime.of(2030, 2, 1, 10, 0));
+        eventDto.setEndEventDateTime(LocalDateTime.of(2030, 2, 1, 18, 0));
+        String location = this.mockMvc.perform(post("/api/events")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(this.objectMapper.writeValueAsString(eventDto)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        int id = Integer.parseInt(location.substring(location.lastIndexOf('/') + 1));
+
+        // when & then
+        this.mockMvc.perform(get("/api/events/window")
+                .param("period", "enrollment")
+                .param("from", "2030-01-15T12:00:00"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventWindowList[0].id").value(id))
+            .andExpect(jsonPath("_embedded.eventWindowList[0].begin").exists())
+            .andExpect(jsonPath("_embedded.eventWindowList[0]._links.self").exists())
+            .andExpect(jsonPath("_links.self").exists())
+            .andExpect(jsonPath("_links.profile").exists())
+            .andDo(document("get-events-window"));
+        this.mockMvc.perform(get("/api/events/window")
+                .param("period", "event")
+                .param("from", "2030-02-01T17:00:00")
+                .param("to", "2030-02-03T00:00:00"))
+            .andExpect(jsonPath("_embedded.eventWindowList[0].id").value(id));
+
+        // when: 모집 기간을 옮기면 이전 기간으로는 조회되지 않는다.
+        eventDto.setBeginEnrollmentDateTime(LocalDateTime.of(2029, 12, 1, 0, 0));
+        eventDto.setCloseEnrollmentDateTime(LocalDateTime.of(2029, 12, 31, 0, 0));
+        this.mockMvc.perform(put(URI.create(location).getPath())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(this.objectMapper.writeValueAsString(eventDto)))
+            .andExpect(status().isOk());
+
+        // then
+        this.mockMvc.perform(get("/api/events/window")
+                .param("period", "enrollment")
+                .param("from", "2030-01-15T12:00:00"))
+            .andExpect(jsonPath("_embedded.eventWindowList").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("기간 조회에 잘못된 period 나 범위를 넘기면 400")
+    public void queryEventsByWindow_Bad_Request() throws Exception {
+        this.mockMvc.perform(get("/api/events/window")
+                .param("period", "unknown")
+                .param("from", "2030-01-15T12:00:00"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("errors[0].code").value("invalidPeriod"));
+        this.mockMvc.perform(get("/api/events/window")
+                .param("from", "2030-01-15T12:00:00")
+                .param("to", "2030-01-14T12:00:00"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("errors[0].code").value("invalidWindow"));
+    }
+
+    @Test
+    @DisplayName("COUNT 쿼리 없이 30개의 이벤트를 10개씩 slice로 조회하기")
+    public void queryEventsSlice() throws Exception {
+        // Given
+        IntStream.range(0, 30).forEach(this::generateEvent);
+
+        // when & then
+        this.mockMvc.perform(
+            get("/api/events/slice")
+                .param("page", "1")
+                .param("size", "10")
+                .param("sort", "name,DESC"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+            .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+            .andExpect(jsonPath("page.hasNext").value(true))
+            .andExpect(jsonPath("page.totalElements").exists())
+            .andExpect(jsonPath("page.totalElementsApproximate").value(true))
+            .andExpect(jsonPath("_links.self").exists())
+            .andExpect(jsonPath("_links.prev").exists())
+            .andExpect(jsonPath("_links.next").exists())
+            .andExpect(jsonPath("_links.profile").exists())
+            .andDo(document("get-events-slice"))
+        ;
+    }
+
+    @Test
+    @DisplayName("30개의 이벤트를 커서 기반으로 10개씩 이어서 조회하기")
+    public void queryEventsByCursor() throws Exception {
+        // Given
+        this.eventRepository.deleteAll();
+        IntStream.range(0, 30).forEach(this::generateEvent);
+
+        // when & then
+        MvcResult firstPage = this.mockMvc.perform(
+            get("/api/events/cursor")
+                .param("size", "10")
+                .param("sort", "beginEnrollmentDateTime,DESC"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+            .andExpect(jsonPath("_embedded.eventList[0].name").value("event 29"))
+            .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+            .andExpect(jsonPath("_links.self").exists())
+            .andExpect(jsonPath("_links.next").exists())
+            .andExpect(jsonPath("_links.profile").exists())
+            .andExpect(jsonPath("page").doesNotExist())
+            .andDo(document("get-events-cursor"))
+            .andReturn();
+
+        String secondPageUri = JsonPath
+            .read(firstPage.getResponse().getContentAsString(), "_links.next.href");
+        MvcResult secondPage = this.mockMvc.perform(get(URI.create(secondPageUri)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+            .andExpect(jsonPath("_links.next").exists())
+            .andReturn();
+
+        String thirdPageUri = JsonPath
+            .read(secondPage.getResponse().getContentAsString(), "_links.next.href");
+        this.mockMvc.perform(get(URI.create(thirdPageUri)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+            .andExpect(jsonPath("_embedded.eventList[9].name").value("event 0"))
+            .andExpect(jsonPath("_links.next").doesNotExist())
+        ;
+    }
+
+    @Test
+    @DisplayName("모집 시작 시각이 없는 이벤트도 커서로 빠짐없이 이어서 조회하기")
+    public void queryEventsByCursor_Null_Sort_Value() throws Exception {
+        // Given
+        this.eventRepository.deleteAll();
+        IntStream.range(0, 3).forEach(this::generateEvent);
+        IntStream.range(3, 6).forEach(i -> {
+            Event event = this.generateEvent(i);
+            event.setBeginEnrollmentDateTime(null);
+            this.eventRepository.save(event);
+        });
+
+        // when: 페이지 크기 2 로 값이 있는 행과 null 인 행에 걸친 페이지도 읽는다.
+        List<String> names = new ArrayList<>();
+        String uri = "/api/events/cursor?size=2&sort=beginEnrollmentDateTime,ASC";
+        while (uri != null) {
+            String body = this.mockMvc.perform(get(URI.create(uri)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            names.addAll(JsonPath.read(body, "_embedded.eventList[*].name"));
+            Map<String, Object> links = JsonPath.read(body, "_links");
+            uri = links.containsKey("next") ? JsonPath.read(body, "_links.next.href") : null;
+        }
+
+        // then: null 은 값이 있는 행 뒤에 id 순서로 온다.
+        assertThat(names).containsExactly(
+            "event 0", "event 1", "event 2", "event 3", "event 4", "event 5");
+    }
+
+    @Test
+    @DisplayName("인덱스가 없는 속성으로 커서 조회하면 bad request를 반환")
+    public void queryEventsByCursor_Unindexed_Sort() throws Exception {
+        this.mockMvc.perform(
+            get("/api/events/cursor")
+                .param("sort", "name,ASC"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("errors[0].code").value("invalidCursor"))
+        ;
+    }
+
+    @Test
+    @DisplayName("커서 조회에 정렬 속성을 둘 이상 주면 bad request를 반환")
+    public void queryEventsByCursor_Multiple_Sort() throws Exception {
+        this.mockMvc.perform(
+            get("/api/events/cursor")
+                .param("sort", "basePrice,ASC")
+                .param("sort", "id,DESC"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("errors[0].code").value("invalidCursor"))
+        ;
+    }
+
+    @Test
+    @DisplayName("잘못된 커서로 조회했을 때 bad request를 반환")
+    public void queryEventsByCursor_Bad_Request() throws Exception {
+        this.mockMvc.perform(
+            get("/api/events/cursor")
+                .param("after", "not-a-cursor"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("errors[0].code").value("invalidCursor"))
+        ;
+    }
+
+    @Test
+    @DisplayName("모든 이벤트를 NDJSON으로 내보내기")
+    public void exportEvents() throws Exception {
+        // Given
+        Account manager = this.accountRepository.save(Account.builder()
+            .email("manager-export@email.com")
+            .password("pass")
+            .roles(Set.of(AccountRole.USER))
+            .build());
+        IntStream.range(0, 30).forEach(i -> {
+            Event event = this.generateEvent(i);
+            event.setManager(manager);
+            this.eventRepository.save(event);
+        });
+        long count = this.eventRepository.count();
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+            .getStatistics();
+        statistics.clear();
+
+        // when
+        MvcResult asyncResult = this.mockMvc.perform(get("/api/events/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        asyncResult.getAsyncResult();
+
+        // then
+        MvcResult result = this.mockMvc.perform(asyncDispatch(asyncResult))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE,
+                startsWith(MediaType.APPLICATION_NDJSON_VALUE)))
+            .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize((int) count);
+        assertThat(this.objectMapper.readTree(lines[0]).has("name")).isTrue();
+        assertThat(this.objectMapper.readTree(lines[lines.length - 1]).get("managerId").asInt())
+            .isEqualTo(manager.getId());
+        // account 와 roles 를 읽지 않고 이벤트 커서 하나만 연다.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
     @Test
     @DisplayName("이벤트 1개 조회하기")
     public void getEvent() throws Exception {
@@ -277,6 +900,54 @@ public class EventControllerTests extends BaseControllerTest {
 
     }
 
+    @Test
+    @DisplayName("캐싱된 이벤트를 수정하면 다음 조회에 수정된 내용이 반영됨")
+    public void getEvent_After_Update() throws Exception {
+        // given
+        Event event = this.generateEvent(300);
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("name").value("event 300"));
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("name").value("event 300"))
+            .andExpect(jsonPath("_links.self").exists());
+
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        eventDto.setName("updated event");
+        this.mockMvc.perform(
+            put("/api/events/{id}", event.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(this.objectMapper.writeValueAsString(eventDto)))
+            .andExpect(status().isOk());
+
+        // when & then
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("name").value("updated event"))
+        ;
+    }
+
+    @Test
+    @DisplayName("ETag가 같으면 본문 없이 304 응답받기")
+    public void getEvent_Not_Modified() throws Exception {
+        // given
+        Event event = this.generateEvent(400);
+        String eTag = this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when & then
+        this.mockMvc.perform(
+            get("/api/events/{id}", event.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""))
+        ;
+    }
+
     @Test
     @DisplayName("없는 이벤트를 조회했을 때 404 응답받기")
     public void getEvent404() throws Exception {
@@ -309,6 +980,48 @@ public class EventControllerTests extends BaseControllerTest {
 
     }
 
+    @Test
+    @DisplayName("If-Match가 현재 ETag와 같으면 수정하고 새 ETag를 반환")
+    public void updateEvent_If_Match() throws Exception {
+        // given
+        Event event = this.generateEvent(200);
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        eventDto.setName("updated event");
+        String eTag = "\"" + event.getVersion() + "\"";
+
+        // when & then
+        this.mockMvc.perform(
+            put("/api/events/{id}", event.getId())
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(this.objectMapper.writeValueAsString(eventDto)))
+            .andExpect(status().isOk())
+            .andExpect(
+                header().string(HttpHeaders.ETAG, "\"" + (event.getVersion() + 1) + "\""))
+        ;
+    }
+
+    @Test
+    @DisplayName("If-Match가 현재 ETag와 다르면 이벤트 수정 실패(412)")
+    public void updateEvent_412() throws Exception {
+        // given
+        Event event = this.generateEvent(200);
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        eventDto.setName("updated event");
+
+        // when & then
+        this.mockMvc.perform(
+            put("/api/events/{id}", event.getId())
+                .header(HttpHeaders.IF_MATCH, "\"" + (event.getVersion() + 1) + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(this.objectMapper.writeValueAsString(eventDto)))
+            .andExpect(status().isPreconditionFailed())
+        ;
+
+        assertThat(this.eventRepository.findById(event.getId()).get().getName())
+            .isEqualTo("event 200");
+    }
+
     @Test
     @DisplayName("입력값이 비어있는 경우 이벤트 수정 실패(bad request)")
     public void updateEvent_400_Empty() throws Exception {
@@ -362,6 +1075,21 @@ public class EventControllerTests extends BaseControllerTest {
 
     }
 
+    private EventDto generateEventDto(int i) {
+        return EventDto.builder()
+            .name("event " + i)
+            .description("rest api")
+            .beginEnrollmentDateTime(LocalDateTime.of(2021, 7, 30, 21, 21))
+            .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 30, 21, 21))
+            .beginEventDateTime(LocalDateTime.of(2021, 9, 1, 21, 21))
+            .endEventDateTime(LocalDateTime.of(2021, 9, 2, 21, 21))
+            .basePrice(100)
+            .maxPrice(200)
+            .limitOfEnrollment(100)
+            .location("강남")
+            .build();
+    }
+
     private Event generateEvent(int i) {
         Event event = Event.builder()
             .name("event " + i)
@@ -0,0 +1,42 @@
+package me.kirok.restapi.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import me.kirok.restapi.events.EventIntervalIndex.EventWindow;
+import me.kirok.restapi.events.EventIntervalIndex.Period;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EventIntervalIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2021, 7, 30, 21, 0);
+
+    private final EventIntervalIndex eventIntervalIndex = new EventIntervalIndex(null, null);
+
+    @Test
+    @DisplayName("이미 반영한 것보다 오래된 version 이 늦게 도착하면 무시")
+    public void put_StaleVersion() {
+        // given
+        this.eventIntervalIndex.put(event(3L, NOW.plusDays(10)));
+
+        // when
+        this.eventIntervalIndex.put(event(2L, NOW.plusDays(1)));
+
+        // then
+        List<EventWindow> windows = this.eventIntervalIndex.query(Period.ENROLLMENT,
+            NOW, NOW.plusDays(30), 10);
+        assertThat(windows).hasSize(1);
+        assertThat(windows.get(0).getBegin()).isEqualTo(NOW.plusDays(10));
+    }
+
+    private static Event event(Long version, LocalDateTime beginEnrollment) {
+        return Event.builder()
+            .id(1)
+            .version(version)
+            .beginEnrollmentDateTime(beginEnrollment)
+            .closeEnrollmentDateTime(beginEnrollment.plusDays(1))
+            .build();
+    }
+}
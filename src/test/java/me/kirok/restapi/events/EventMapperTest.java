@@ -0,0 +1,63 @@
+package me.kirok.restapi.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+class EventMapperTest {
+
+    private final EventMapper eventMapper = new EventMapper();
+
+    @Test
+    @DisplayName("ModelMapper와 같은 결과로 EventDto를 Event로 변환")
+    public void toEvent() {
+        // given
+        EventDto eventDto = EventDto.builder()
+            .name("spring")
+            .description("rest api")
+            .beginEnrollmentDateTime(LocalDateTime.of(2021, 7, 30, 21, 21))
+            .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 30, 21, 21))
+            .beginEventDateTime(LocalDateTime.of(2021, 9, 1, 21, 21))
+            .endEventDateTime(LocalDateTime.of(2021, 9, 2, 21, 21))
+            .basePrice(100)
+            .maxPrice(200)
+            .limitOfEnrollment(100)
+            .location("강남")
+            .build();
+
+        // when
+        Event event = this.eventMapper.toEvent(eventDto);
+
+        // then
+        Event expected = new ModelMapper().map(eventDto, Event.class);
+        assertThat(event).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(event.getEventStatus()).isEqualTo(EventStatus.DRAFT);
+    }
+
+    @Test
+    @DisplayName("기존 Event에 EventDto의 값을 덮어쓰고 id는 유지")
+    public void copy() {
+        // given
+        Event event = Event.builder()
+            .id(10)
+            .name("before")
+            .location("강남")
+            .build();
+        EventDto eventDto = EventDto.builder()
+            .name("after")
+            .basePrice(100)
+            .build();
+
+        // when
+        this.eventMapper.copy(eventDto, event);
+
+        // then
+        assertThat(event.getId()).isEqualTo(10);
+        assertThat(event.getName()).isEqualTo("after");
+        assertThat(event.getBasePrice()).isEqualTo(100);
+        assertThat(event.getLocation()).isNull();
+    }
+}
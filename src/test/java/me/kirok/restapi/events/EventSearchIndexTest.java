@@ -0,0 +1,205 @@
+package me.kirok.restapi.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * EventRepositoryCustom#search 가 실제로 실행하는 SQL(목록과 count)을 가로채서 EXPLAIN 한다.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "me.kirok.restapi.events.EventSearchIndexTest$CapturingStatementInspector")
+@ActiveProfiles("test")
+class EventSearchIndexTest {
+
+    private static final int FILTER_COUNT = 9;
+
+    /**
+     * 범위 조건의 형태. 한쪽만 열린 범위도 인덱스를 사용해야 한다.
+     */
+    private enum Range {
+        FROM, TO, BOTH
+    }
+
+    /**
+     * 컬럼 비교 또는 limit/offset 뒤의 바인딩 파라미터.
+     * 숫자 조건은 Hibernate 가 SQL 에 리터럴로 넣기 때문에 파라미터가 아닐 수 있다.
+     */
+    private static final Pattern PARAMETER = Pattern.compile(
+        "(\\w+)\\s*(>=|<=|=|<|>)\\s*\\?|(limit|offset)\\s+\\?");
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("모든 검색 조건 조합이 목록과 count 쿼리 모두에서 인덱스를 사용 (full scan 없음)")
+    public void everyFilterCombinationUsesIndex() {
+        List<String> fullScans = new ArrayList<>();
+
+        // 조건 9개의 공집합이 아닌 모든 조합 (511개) x 범위 형태 3가지
+        for (Range range : Range.values()) {
+            for (int mask = 1; mask < (1 << FILTER_COUNT); mask++) {
+                // given
+                EventSearchCondition condition = condition(mask, range);
+
+                // when
+                List<String> statements = CapturingStatementInspector.capture(() ->
+                    // 두 번째 페이지를 크기 1로 조회하면 결과와 상관없이 count 쿼리도 실행된다.
+                    this.eventRepository.search(condition, PageRequest.of(1, 1)));
+
+                // then
+                assertThat(statements).hasSize(2);
+                for (String sql : statements) {
+                    String plan = this.jdbcTemplate.queryForObject(
+                        "EXPLAIN " + withLiterals(sql, condition), String.class);
+                    if (plan.contains("tableScan")) {
+                        fullScans.add(range + " " + mask + ": " + plan);
+                    }
+                }
+            }
+        }
+
+        assertThat(fullScans).isEmpty();
+    }
+
+    private static EventSearchCondition condition(int mask, Range range) {
+        EventSearchCondition condition = new EventSearchCondition();
+        if ((mask & 1) != 0) {
+            condition.setEventStatus(EventStatus.PUBLISHED);
+        }
+        if ((mask & 1 << 1) != 0) {
+            condition.setBeginEnrollmentFrom(from(range, LocalDateTime.of(2021, 7, 1, 0, 0)));
+            condition.setBeginEnrollmentTo(to(range, LocalDateTime.of(2021, 8, 1, 0, 0)));
+        }
+        if ((mask & 1 << 2) != 0) {
+            condition.setCloseEnrollmentFrom(from(range, LocalDateTime.of(2021, 8, 1, 0, 0)));
+            condition.setCloseEnrollmentTo(to(range, LocalDateTime.of(2021, 9, 1, 0, 0)));
+        }
+        if ((mask & 1 << 3) != 0) {
+            condition.setBeginEventFrom(from(range, LocalDateTime.of(2021, 9, 1, 0, 0)));
+            condition.setBeginEventTo(to(range, LocalDateTime.of(2021, 9, 8, 0, 0)));
+        }
+        if ((mask & 1 << 4) != 0) {
+            condition.setEndEventFrom(from(range, LocalDateTime.of(2021, 9, 1, 0, 0)));
+            condition.setEndEventTo(to(range, LocalDateTime.of(2021, 9, 8, 0, 0)));
+        }
+        if ((mask & 1 << 5) != 0) {
+            condition.setFree(true);
+        }
+        if ((mask & 1 << 6) != 0) {
+            condition.setOffline(true);
+        }
+        if ((mask & 1 << 7) != 0) {
+            condition.setBasePriceMin(from(range, 100));
+            condition.setBasePriceMax(to(range, 200));
+        }
+        if ((mask & 1 << 8) != 0) {
+            condition.setManagerId(1);
+        }
+        return condition;
+    }
+
+    private static <T> T from(Range range, T value) {
+        return range == Range.TO ? null : value;
+    }
+
+    private static <T> T to(Range range, T value) {
+        return range == Range.FROM ? null : value;
+    }
+
+    /**
+     * SQL 의 바인딩 파라미터를 조건 값의 리터럴로 바꾼다.
+     */
+    private static String withLiterals(String sql, EventSearchCondition condition) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("event_status=", condition.getEventStatus() == null
+            ? null : condition.getEventStatus().name());
+        values.put("begin_enrollment_date_time>=", condition.getBeginEnrollmentFrom());
+        values.put("begin_enrollment_date_time<", condition.getBeginEnrollmentTo());
+        values.put("close_enrollment_date_time>=", condition.getCloseEnrollmentFrom());
+        values.put("close_enrollment_date_time<", condition.getCloseEnrollmentTo());
+        values.put("begin_event_date_time>=", condition.getBeginEventFrom());
+        values.put("begin_event_date_time<", condition.getBeginEventTo());
+        values.put("end_event_date_time>=", condition.getEndEventFrom());
+        values.put("end_event_date_time<", condition.getEndEventTo());
+        values.put("free=", condition.getFree());
+        values.put("offline=", condition.getOffline());
+        values.put("base_price>=", condition.getBasePriceMin());
+        values.put("base_price<=", condition.getBasePriceMax());
+        values.put("manager_id=", condition.getManagerId());
+        values.put("limit", 1);
+        values.put("offset", 1);
+
+        StringBuffer result = new StringBuffer();
+        Matcher matcher = PARAMETER.matcher(sql);
+        while (matcher.find()) {
+            String key = matcher.group(3) != null
+                ? matcher.group(3)
+                : matcher.group(1) + matcher.group(2);
+            assertThat(values.get(key)).as(key + " in " + sql).isNotNull();
+            String parameter = matcher.group();
+            String literal = parameter.substring(0, parameter.length() - 1)
+                + literal(values.get(key));
+            matcher.appendReplacement(result, Matcher.quoteReplacement(literal));
+        }
+        matcher.appendTail(result);
+        assertThat(result.toString()).as(sql).doesNotContain("?");
+        return result.toString();
+    }
+
+    private static String literal(Object value) {
+        if (value instanceof String) {
+            return "'" + value + "'";
+        }
+        if (value instanceof LocalDateTime) {
+            return "TIMESTAMP '" + Timestamp.valueOf((LocalDateTime) value) + "'";
+        }
+        return String.valueOf(value).toUpperCase();
+    }
+
+    /**
+     * capture 중인 스레드에서 Hibernate 가 준비하는 SQL 을 모은다.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+        static List<String> capture(Runnable action) {
+            List<String> statements = new ArrayList<>();
+            STATEMENTS.set(statements);
+            try {
+                action.run();
+            } finally {
+                STATEMENTS.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = STATEMENTS.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
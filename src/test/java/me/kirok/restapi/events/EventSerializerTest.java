@@ -0,0 +1,119 @@
+package me.kirok.restapi.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.time.LocalDateTime;
+import java.util.List;
+import me.kirok.restapi.accounts.Account;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+
+class EventSerializerTest {
+
+    private final ObjectMapper reflective = halObjectMapper();
+
+    private final ObjectMapper handWritten = halObjectMapper().registerModule(new SimpleModule()
+        .addSerializer(new EventSerializer())
+        .addSerializer(new EventSliceModelSerializer()));
+
+    @Test
+    @DisplayName("EntityModel<Event> 를 리플렉션 직렬화와 같은 JSON 으로 쓰고 manager 는 managerId 로 대체")
+    public void serializeEntityModel() throws Exception {
+        // given
+        Event event = event(1);
+        event.setManager(Account.builder().id(7).email("manager@email.com")
+            .password("secret").build());
+        EntityModel<Event> model = EntityModel.of(event,
+            Link.of("http://localhost/api/events/1"),
+            Link.of("http://localhost/docs/index.html#resources-events-get", "profile"));
+
+        // when
+        JsonNode expected = withManagerId(reflectiveTree(model), 7);
+        JsonNode actual = this.handWritten.readTree(this.handWritten.writeValueAsBytes(model));
+
+        // then
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.has("manager")).isFalse();
+        assertThat(actual.get("beginEnrollmentDateTime").asText())
+            .isEqualTo("2021-07-30T21:21:05.12");
+        assertThat(actual.get("endEventDateTime").asText()).isEqualTo("2021-09-02T21:21:00");
+    }
+
+    @Test
+    @DisplayName("EventSliceModel 을 Jackson2HalModule 과 같은 구조로 쓴다")
+    public void serializeSliceModel() throws Exception {
+        // given
+        List<EntityModel<Event>> content = List.of(
+            EntityModel.of(event(1), Link.of("http://localhost/api/events/1")),
+            EntityModel.of(event(2), Link.of("http://localhost/api/events/2")));
+        EventSliceModel model = new EventSliceModel(content,
+            new EventSliceModel.SliceMetadata(2, 0, true, 10, true));
+        model.add(Link.of("http://localhost/api/events/slice?page=0", IanaLinkRelations.SELF));
+        model.add(Link.of("http://localhost/api/events/slice?page=1", IanaLinkRelations.NEXT));
+
+        // when
+        JsonNode expected = reflectiveTree(model);
+        expected.get("_embedded").get("eventList").forEach(item -> withManagerId(item, null));
+        JsonNode actual = this.handWritten.readTree(this.handWritten.writeValueAsBytes(model));
+
+        // then
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.get("_embedded").get("eventList")).hasSize(2);
+        assertThat(actual.get("page").get("hasNext").asBoolean()).isTrue();
+    }
+
+    private JsonNode reflectiveTree(Object value) throws Exception {
+        return this.reflective.readTree(this.reflective.writeValueAsBytes(value));
+    }
+
+    private JsonNode withManagerId(JsonNode node, Integer managerId) {
+        ObjectNode objectNode = (ObjectNode) node;
+        objectNode.remove("manager");
+        if (managerId == null) {
+            objectNode.putNull("managerId");
+        } else {
+            objectNode.put("managerId", managerId);
+        }
+        return objectNode;
+    }
+
+    private Event event(int id) {
+        return Event.builder()
+            .id(id)
+            .name("event " + id)
+            .description("rest api")
+            .beginEnrollmentDateTime(LocalDateTime.of(2021, 7, 30, 21, 21, 5, 120_000_000))
+            .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 30, 21, 21))
+            .beginEventDateTime(LocalDateTime.of(2021, 9, 1, 21, 21))
+            .endEventDateTime(LocalDateTime.of(2021, 9, 2, 21, 21))
+            .basePrice(100)
+            .maxPrice(200)
+            .limitOfEnrollment(100)
+            .free(false)
+            .offline(false)
+            .eventStatus(EventStatus.DRAFT)
+            .build();
+    }
+
+    private static ObjectMapper halObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.registerModule(new Jackson2HalModule());
+        objectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+            new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        return objectMapper;
+    }
+}
@@ -0,0 +1,105 @@
+package me.kirok.restapi.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EventStatusSchedulerTest {
+
+    @Autowired
+    EventStatusScheduler eventStatusScheduler;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("모집 시작 시각이 되면 PUBLISHED 이벤트를 BEGAN_ENROLLMENT 로 바꾸고 version 을 올림")
+    public void transitionWhenDue() throws InterruptedException {
+        // given
+        Event event = this.eventRepository
+            .save(publishedEvent(LocalDateTime.now().plusNanos(300_000_000)));
+        Long version = event.getVersion();
+        Event draft = this.eventRepository.save(Event.builder()
+            .name("draft")
+            .eventStatus(EventStatus.DRAFT)
+            .beginEnrollmentDateTime(LocalDateTime.now())
+            .build());
+
+        // when
+        this.eventStatusScheduler.schedule(event);
+        this.eventStatusScheduler.schedule(draft);
+        Event transitioned = awaitStatus(event.getId(), EventStatus.BEGAN_ENROLLMENT);
+
+        // then
+        assertThat(transitioned.getEventStatus()).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+        assertThat(transitioned.getVersion()).isEqualTo(version + 1);
+        assertThat(this.eventRepository.findById(draft.getId()).orElseThrow().getEventStatus())
+            .isEqualTo(EventStatus.DRAFT);
+        assertThat(this.meterRegistry.get("events.status.transition.lag").timer().count())
+            .isPositive();
+        assertThat(this.meterRegistry.get("events.status.transition.batch-size").summary().count())
+            .isPositive();
+    }
+
+    @Test
+    @DisplayName("한 번에 저장한 이벤트들을 모두 예약")
+    public void scheduleAll() throws InterruptedException {
+        // given
+        LocalDateTime begin = LocalDateTime.now().plusNanos(300_000_000);
+        List<Event> events = this.eventRepository.saveAll(
+            List.of(publishedEvent(begin), publishedEvent(begin.plusNanos(100_000_000))));
+
+        // when
+        this.eventStatusScheduler.scheduleAll(events);
+
+        // then
+        for (Event event : events) {
+            assertThat(awaitStatus(event.getId(), EventStatus.BEGAN_ENROLLMENT).getEventStatus())
+                .isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+        }
+    }
+
+    @Test
+    @DisplayName("예약되지 않은 밀린 전이는 resync 에서 한 번에 처리")
+    public void transitionOverdueOnResync() {
+        // given
+        Event event = this.eventRepository.save(publishedEvent(LocalDateTime.now().minusDays(1)));
+
+        // when
+        this.eventStatusScheduler.resync();
+
+        // then
+        assertThat(this.eventRepository.findById(event.getId()).orElseThrow().getEventStatus())
+            .isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+    }
+
+    private Event awaitStatus(Integer id, EventStatus status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        Event event = this.eventRepository.findById(id).orElseThrow();
+        while (event.getEventStatus() != status && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            event = this.eventRepository.findById(id).orElseThrow();
+        }
+        return event;
+    }
+
+    private Event publishedEvent(LocalDateTime beginEnrollmentDateTime) {
+        return Event.builder()
+            .name("published")
+            .eventStatus(EventStatus.PUBLISHED)
+            .beginEnrollmentDateTime(beginEnrollmentDateTime)
+            .build();
+    }
+}
@@ -0,0 +1,53 @@
+package me.kirok.restapi.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EventTextIndexTest {
+
+    private EventTextIndex eventTextIndex;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        // 메모리에 색인하고, catch-up 과 주기적인 commit 은 사용하지 않는다.
+        this.eventTextIndex = new EventTextIndex(null, null, "", 5000);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        this.eventTextIndex.stop();
+    }
+
+    @Test
+    @DisplayName("이미 색인한 것보다 오래된 version 이 늦게 도착하면 무시")
+    public void index_StaleVersion() {
+        // given
+        this.eventTextIndex.index(Event.builder().id(1).version(3L).name("newer").build());
+
+        // when
+        this.eventTextIndex.index(Event.builder().id(1).version(2L).name("older").build());
+
+        // then
+        assertThat(this.eventTextIndex.search("older", 0, 10).getIds()).isEmpty();
+        assertThat(this.eventTextIndex.search("newer", 0, 10).getIds()).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("같거나 새로운 version 은 문서를 교체")
+    public void index_NewerVersion() {
+        // given
+        this.eventTextIndex.index(Event.builder().id(1).version(2L).name("older").build());
+
+        // when
+        this.eventTextIndex.index(Event.builder().id(1).version(3L).name("newer").build());
+
+        // then
+        assertThat(this.eventTextIndex.search("older", 0, 10).getIds()).isEmpty();
+        assertThat(this.eventTextIndex.search("newer", 0, 10).getIds()).containsExactly(1);
+    }
+}